@@ -24,12 +24,16 @@
 package net.kyori.adventure.platform;
 
 import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.renderer.ComponentRenderer;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -130,6 +134,34 @@ public interface AudienceProvider {
    */
   @NonNull GsonComponentSerializer gsonSerializer();
   
+  /**
+   * Limits how often changes to the progress of a boss bar are sent to its viewers.
+   *
+   * <p>A change is held back until the progress differs from what was last sent by at least {@code minimumDelta},
+   * and until {@code minimumInterval} has passed since the last update. Held changes are folded into the next update sent.
+   * Reaching empty or full progress is never held back by {@code minimumDelta}.</p>
+   *
+   * @param bar the boss bar
+   * @param minimumDelta the smallest change in progress to send, from 0 to 1
+   * @param minimumInterval the shortest time between progress updates
+   */
+  default void limitBossBarProgress(final @NonNull BossBar bar, final float minimumDelta, final @NonNull Duration minimumInterval) {
+  }
+
+  /**
+   * Gets a snapshot of counters and timings recorded by this provider, for export to monitoring.
+   *
+   * <p>Names are dot-separated, and values are counts, or durations in nanoseconds.
+   * Timings for each handler are only recorded when the {@code net.kyori.adventure.metrics} system property is
+   * set to {@code true}. Handler metrics are kept by handler type for the whole process, so every provider
+   * reports the handlers used by all providers.</p>
+   *
+   * @return a new, mutable snapshot of metrics, by name
+   */
+  default @NonNull Map<String, Long> metrics() {
+    return new HashMap<>();
+  }
+
   /**
    * Closes the factory and releases any resources.
    *
@@ -0,0 +1,152 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.bukkit;
+
+import com.google.common.collect.MapMaker;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.lang.invoke.MethodHandles.filterReturnValue;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Compares the ways {@link CraftBukkitHandlers#sendPacket(org.bukkit.entity.Player, Object)} has called into the server.
+ *
+ * <p>The server classes are replaced with stand-ins of the same shape, so only the cost of the method handle calls is measured.
+ * Each benchmark sends one packet.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketSendBenchmark {
+  private static final MethodHandle CRAFT_PLAYER_GET_HANDLE; // (CraftPlayer)EntityPlayer
+  private static final MethodHandle ENTITY_PLAYER_GET_CONNECTION; // (EntityPlayer)PlayerConnection
+  private static final MethodHandle PLAYER_CONNECTION_SEND_PACKET; // (PlayerConnection, Packet)void
+  private static final MethodHandle PLAYER_GET_CONNECTION_ERASED; // (Object)Object
+  private static final MethodHandle PLAYER_CONNECTION_SEND_PACKET_ERASED; // (Object, Object)void
+
+  static {
+    try {
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      CRAFT_PLAYER_GET_HANDLE = lookup.findVirtual(CraftPlayer.class, "getHandle", methodType(EntityPlayer.class));
+      ENTITY_PLAYER_GET_CONNECTION = lookup.findGetter(EntityPlayer.class, "playerConnection", PlayerConnection.class);
+      PLAYER_CONNECTION_SEND_PACKET = lookup.findVirtual(PlayerConnection.class, "sendPacket", methodType(void.class, Packet.class));
+      PLAYER_GET_CONNECTION_ERASED = filterReturnValue(CRAFT_PLAYER_GET_HANDLE, ENTITY_PLAYER_GET_CONNECTION)
+        .asType(methodType(Object.class, Object.class));
+      PLAYER_CONNECTION_SEND_PACKET_ERASED = PLAYER_CONNECTION_SEND_PACKET.asType(methodType(void.class, Object.class, Object.class));
+    } catch(final NoSuchMethodException | NoSuchFieldException | IllegalAccessException ex) {
+      throw new ExceptionInInitializerError(ex);
+    }
+  }
+
+  private static final int ONLINE = 100; // other players with cached connections
+
+  private final Object player = new CraftPlayer();
+  private final Object packet = new Packet();
+  private final Map<Object, Object> connections = new MapMaker().weakKeys().makeMap();
+  private final Object[] online = new Object[ONLINE]; // held so the weak keys stay in the map
+
+  public PacketSendBenchmark() {
+    for(int i = 0; i < ONLINE; i++) {
+      final CraftPlayer other = new CraftPlayer();
+      this.online[i] = other;
+      this.connections.put(other, other.getHandle().playerConnection);
+    }
+  }
+
+  /**
+   * Three handles called with {@code invoke}, as before connections were cached.
+   *
+   * @throws Throwable never
+   */
+  @Benchmark
+  public void invoke() throws Throwable {
+    final Object handle = CRAFT_PLAYER_GET_HANDLE.invoke(this.player);
+    final Object connection = ENTITY_PLAYER_GET_CONNECTION.invoke(handle);
+    PLAYER_CONNECTION_SEND_PACKET.invoke(connection, this.packet);
+  }
+
+  /**
+   * The composed, erased handles called with {@code invokeExact}, resolving the connection each time.
+   *
+   * @throws Throwable never
+   */
+  @Benchmark
+  public void invokeExact() throws Throwable {
+    final Object connection = (Object) PLAYER_GET_CONNECTION_ERASED.invokeExact(this.player);
+    PLAYER_CONNECTION_SEND_PACKET_ERASED.invokeExact(connection, this.packet);
+  }
+
+  /**
+   * A connection cached in a weak-keyed map, looked up each time, as sent through now.
+   *
+   * @throws Throwable never
+   */
+  @Benchmark
+  public void invokeExactCached() throws Throwable {
+    Object connection = this.connections.get(this.player);
+    if(connection == null) {
+      connection = (Object) PLAYER_GET_CONNECTION_ERASED.invokeExact(this.player);
+      this.connections.put(this.player, connection);
+    }
+    PLAYER_CONNECTION_SEND_PACKET_ERASED.invokeExact(connection, this.packet);
+  }
+
+  public static final class CraftPlayer {
+    private final EntityPlayer handle = new EntityPlayer();
+
+    public EntityPlayer getHandle() {
+      return this.handle;
+    }
+  }
+
+  public static final class EntityPlayer {
+    public final PlayerConnection playerConnection = new PlayerConnection();
+  }
+
+  public static final class PlayerConnection {
+    private int sent;
+
+    public void sendPacket(final Packet packet) {
+      this.sent++;
+    }
+  }
+
+  public static final class Packet {
+  }
+}
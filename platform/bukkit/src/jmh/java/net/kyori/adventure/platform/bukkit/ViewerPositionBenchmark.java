@@ -0,0 +1,65 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.bukkit;
+
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures moving a relative phantom entity for a viewer, as done for every move event.
+ *
+ * <p>The update interval is disabled, so every turn is far enough to move the entity. Run with {@code -prof gc}
+ * to check that {@code gc.alloc.rate.norm} stays at zero bytes per operation.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dnet.kyori.adventure.phantomEntityUpdateInterval=0")
+public class ViewerPositionBenchmark {
+  private final Location location = new Location(null, 10, 64, 10, 0, 0);
+  private final PhantomEntity.Impl.ViewerPosition position = new PhantomEntity.Impl.ViewerPosition(this.location);
+  private boolean turnRight;
+
+  @Benchmark
+  public double move() {
+    // turn back and forth by more than the minimum turn
+    this.turnRight = !this.turnRight;
+    this.location.setYaw(this.turnRight ? 10 : 0);
+    if(this.position.update(this.location) == PhantomEntity.Impl.ViewerPosition.MOVE_READY) {
+      this.position.relative(40, 30, 0);
+    }
+    return this.position.targetX + this.position.targetY + this.position.targetZ;
+  }
+}
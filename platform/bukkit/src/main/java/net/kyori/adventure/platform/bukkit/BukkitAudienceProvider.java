@@ -26,27 +26,35 @@ package net.kyori.adventure.platform.bukkit;
 import com.google.common.collect.ImmutableList;
 import com.google.common.graph.MutableGraph;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.platform.common.AbstractAudienceProvider;
+import net.kyori.adventure.platform.common.AbstractBossBarListener;
+import net.kyori.adventure.platform.common.HandledAudience;
 import net.kyori.adventure.platform.common.Handler;
 import net.kyori.adventure.platform.common.HandlerCollection;
 import net.kyori.adventure.platform.common.JDKLogHandler;
 import net.kyori.adventure.platform.common.Knobs;
 import net.kyori.adventure.platform.common.NBTLegacyHoverEventSerializer;
+import net.kyori.adventure.platform.common.ProtocolVersions;
 import net.kyori.adventure.platform.viaversion.ViaAPIProvider;
 import net.kyori.adventure.platform.viaversion.ViaAccess;
 import net.kyori.adventure.platform.viaversion.ViaVersionHandlers;
+import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.text.serializer.bungeecord.BungeeCordComponentSerializer;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
@@ -54,15 +62,19 @@ import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.event.server.PluginEnableEvent;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import us.myles.ViaVersion.api.platform.ViaPlatform;
 import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 
@@ -87,6 +99,7 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
 
   private static final Map<String, BukkitAudienceProvider> INSTANCES = new ConcurrentHashMap<>();
   private static final String PLUGIN_VIAVERSION = "ViaVersion";
+  private static final double AUDIBLE_DISTANCE = 16; // blocks, at a volume of 1
 
   static final boolean IS_1_16 = Crafty.findEnum(Material.class, "NETHERITE_PICKAXE") != null;
   static final GsonComponentSerializer GSON_SERIALIZER;
@@ -152,6 +165,8 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
 
   private final Plugin plugin;
   private final PhantomEntityTracker entityTracker;
+  private final @Nullable Listener flushListener;
+  private @Nullable BukkitTask bossBarTask;
   private final BukkitViaProvider viaProvider;
   private final HandlerCollection<? super CommandSender, ? extends Handler.Chat<? super CommandSender, ?>> chat;
   private final HandlerCollection<Player, Handler.ActionBar<Player, ?>> actionBar;
@@ -163,6 +178,7 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
   BukkitAudienceProvider(final @NonNull Plugin plugin) {
     this.plugin = requireNonNull(plugin, "plugin");
     this.entityTracker = new PhantomEntityTracker(plugin);
+    this.flushListener = PacketFlusher.start(plugin);
     injectSoftdepend(this.plugin, "ViaVersion");
     this.viaProvider = new BukkitViaProvider(this.plugin.getServer().getPluginManager());
 
@@ -221,25 +237,51 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
     this.add(new BukkitPlayerAudience(player, this.chat, this.actionBar, this.title, this.bossBar, this.playSound, this.books));
   }
 
+  private void invalidateTitles(final @NonNull Player player) {
+    for(final Handler.Titles<Player> handler : this.title) {
+      handler.invalidate(player);
+    }
+  }
+
   private void init() {
     this.registerEvent(PlayerJoinEvent.class, EventPriority.LOWEST, event -> {
+      this.viaProvider.join(event.getPlayer());
       this.addPlayer(event.getPlayer());
     });
     for(final Player player : this.plugin.getServer().getOnlinePlayers()) {
+      this.viaProvider.join(player);
       this.addPlayer(player);
     }
 
     this.registerEvent(PlayerQuitEvent.class, EventPriority.MONITOR, event -> {
       this.remove(event.getPlayer().getUniqueId());
+      this.viaProvider.quit(event.getPlayer());
+      CraftBukkitHandlers.invalidateConnection(event.getPlayer());
       for(final Handler.BossBars<Player> handler : this.bossBar) {
         handler.hideAll(event.getPlayer());
       }
+      this.invalidateTitles(event.getPlayer());
+    });
+
+    // The server may swap out the native player entity, so any cached connection has to be looked up again
+    // The client may also have dropped its title state
+    this.registerEvent(PlayerRespawnEvent.class, EventPriority.MONITOR, event -> {
+      CraftBukkitHandlers.invalidateConnection(event.getPlayer());
+      this.invalidateTitles(event.getPlayer());
+    });
+    this.registerEvent(PlayerChangedWorldEvent.class, EventPriority.MONITOR, event -> {
+      CraftBukkitHandlers.invalidateConnection(event.getPlayer());
+      this.invalidateTitles(event.getPlayer());
     });
 
     // ViaVersion
     this.registerEvent(PluginEnableEvent.class, EventPriority.NORMAL, event -> {
       if(event.getPlugin().getName().equals(PLUGIN_VIAVERSION)) {
+        this.viaProvider.dirtyVia();
         this.viaProvider.platform(); // init
+        for(final Player player : this.plugin.getServer().getOnlinePlayers()) {
+          this.viaProvider.join(player);
+        }
       }
     });
     this.registerEvent(PluginDisableEvent.class, EventPriority.NORMAL, event -> {
@@ -248,6 +290,15 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
       }
     });
 
+    // Send boss bar changes once per interval, rather than as each one is made
+    final int bossBarInterval = Knobs.bossBarUpdateInterval();
+    if(bossBarInterval > 0 && AbstractBossBarListener.coalesce(this.bossBar, true)) {
+      this.bossBarTask = this.plugin.getServer().getScheduler().runTaskTimer(this.plugin, () -> AbstractBossBarListener.flush(this.bossBar), bossBarInterval, bossBarInterval);
+    }
+    // progress changes held back by a limit are sent once the limit allows, rounded up to whole ticks
+    AbstractBossBarListener.scheduler(this.bossBar, (task, delay) -> this.plugin.getServer().getScheduler()
+      .runTaskLater(this.plugin, task, 1 + TimeUnit.NANOSECONDS.toMillis(delay) / 50));
+
     this.add(new BukkitSenderAudience<>(this.plugin.getServer().getConsoleSender(), this.chat, null, null, null, null, null));
   }
 
@@ -269,6 +320,41 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
     }
   }
 
+  @Override
+  public void playSound(final @NonNull Sound sound, final @NonNull Location position) {
+    requireNonNull(sound, "sound");
+    final World world = requireNonNull(position.getWorld(), "position must have a world");
+    final double range = AUDIBLE_DISTANCE * Math.max(1f, sound.volume());
+    final double rangeSquared = range * range;
+
+    // listeners are grouped by handler, so each handler can share its packet
+    final Map<Handler.PlaySound<Player>, List<Player>> listeners = new IdentityHashMap<>();
+    final Location scratch = new Location(world, 0, 0, 0);
+    for(final Player player : world.getPlayers()) {
+      if(player.getLocation(scratch).distanceSquared(position) > rangeSquared) continue;
+      final Handler.PlaySound<Player> handler = this.playSound.get(player);
+      if(handler != null) {
+        listeners.computeIfAbsent(handler, h -> new ArrayList<>()).add(player);
+      }
+    }
+    for(final Map.Entry<Handler.PlaySound<Player>, List<Player>> group : listeners.entrySet()) {
+      if(HandledAudience.instrumented()) {
+        HandledAudience.dispatch(group.getKey(), group.getValue().size(), () -> group.getKey().broadcast(group.getValue(), sound, position.getX(), position.getY(), position.getZ()));
+      } else {
+        group.getKey().broadcast(group.getValue(), sound, position.getX(), position.getY(), position.getZ());
+      }
+    }
+  }
+
+  @Override
+  public @NonNull Map<String, Long> metrics() {
+    final Map<String, Long> metrics = super.metrics();
+    metrics.put("phantomEntityPool.size", (long) this.entityTracker.poolSize());
+    metrics.put("phantomEntityPool.hits", this.entityTracker.poolHits());
+    metrics.put("phantomEntityPool.misses", this.entityTracker.poolMisses());
+    return metrics;
+  }
+
   @Override
   public @NonNull BungeeCordComponentSerializer bungeeCordSerializer() {
     return SpigotHandlers.SERIALIZER;
@@ -282,17 +368,24 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
   @Override
   public void close() {
     HandlerList.unregisterAll(this);
+    if(this.bossBarTask != null) {
+      this.bossBarTask.cancel();
+      this.bossBarTask = null;
+    }
     for(final Handler.BossBars<Player> handler : this.bossBar) {
       handler.hideAll();
     }
     this.entityTracker.close();
+    PacketFlusher.stop(this.flushListener);
     super.close();
   }
 
   static class BukkitViaProvider implements ViaAPIProvider<CommandSender> {
 
     private final PluginManager plugins;
+    private final ProtocolVersions versions = new ProtocolVersions();
     private volatile ViaPlatform<Player> platform = null;
+    private volatile Boolean available = null;
 
     BukkitViaProvider(final @NonNull PluginManager plugins) {
       this.plugins = plugins;
@@ -300,6 +393,14 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
 
     @Override
     public boolean isAvailable() {
+      Boolean available = this.available;
+      if(available == null) {
+        this.available = available = this.detect();
+      }
+      return available;
+    }
+
+    private boolean detect() {
       try {
         final Class<?> apiKlass = Crafty.findClass("us.myles.ViaVersion.api.ViaAPI");
         if(apiKlass == null) {
@@ -335,27 +436,43 @@ final class BukkitAudienceProvider extends AbstractAudienceProvider implements B
     }
 
     @Override
-    public @NonNull GsonComponentSerializer serializer(final @NonNull CommandSender viewer) {
-      requireNonNull(viewer, "viewer");
-      if(this.isAvailable()) {
-        final UUID id = this.id(viewer);
-        if(id != null) {
-          return this.serializer(id);
-        }
-      }
-      return BukkitAudienceProvider.GSON_SERIALIZER;
+    public int protocolVersion(final @NonNull CommandSender viewer) {
+      final UUID id = this.id(viewer);
+      return id == null ? ProtocolVersions.UNKNOWN : this.versions.version(id);
     }
 
-    private GsonComponentSerializer serializer(final @NonNull UUID id) {
-      if(this.platform().getApi().getPlayerVersion(id) >= ProtocolVersion.v1_16.getId()) {
+    @Override
+    public @NonNull GsonComponentSerializer serializer(final @NonNull CommandSender viewer) {
+      requireNonNull(viewer, "viewer");
+      final int version = this.protocolVersion(viewer);
+      if(version == ProtocolVersions.UNKNOWN) {
+        return BukkitAudienceProvider.GSON_SERIALIZER;
+      } else if(version >= ProtocolVersion.v1_16.getId()) {
         return MODERN_GSON_SERIALIZER;
       } else {
         return LEGACY_GSON_SERIALIZER;
       }
     }
 
+    /**
+     * Record the client version of a player, if ViaVersion is available.
+     *
+     * @param player the player
+     */
+    void join(final @NonNull Player player) {
+      if(this.isAvailable()) {
+        this.versions.record(player.getUniqueId(), this.platform().getApi().getPlayerVersion(player.getUniqueId()));
+      }
+    }
+
+    void quit(final @NonNull Player player) {
+      this.versions.remove(player.getUniqueId());
+    }
+
     void dirtyVia() {
       this.platform = null;
+      this.available = null;
+      this.versions.clear();
     }
   }
 
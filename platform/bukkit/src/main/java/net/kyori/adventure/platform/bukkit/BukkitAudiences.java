@@ -25,12 +25,17 @@ package net.kyori.adventure.platform.bukkit;
 
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.platform.AudienceProvider;
+import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.text.serializer.bungeecord.BungeeCordComponentSerializer;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * A provider of {@link Audience}s for the Bukkit API.
  */
@@ -63,6 +68,27 @@ public interface BukkitAudiences extends AudienceProvider {
    */
   @NonNull Audience audience(final @NonNull CommandSender sender);
 
+  /**
+   * Plays a sound at a position, for every player close enough to hear it.
+   *
+   * <p>Players hear a sound within 16 blocks, or further for sounds louder than {@code 1}.
+   * Where possible, one packet is created and shared between every player.</p>
+   *
+   * <p>By default, the sound is played to the {@link #player(Player) audience} of each nearby player in turn.</p>
+   *
+   * @param sound the sound
+   * @param position the position, including its world
+   */
+  default void playSound(final @NonNull Sound sound, final @NonNull Location position) {
+    final World world = requireNonNull(position.getWorld(), "position must have a world");
+    final double range = 16 * Math.max(1f, sound.volume());
+    for(final Player player : world.getPlayers()) {
+      if(player.getLocation().distanceSquared(position) <= range * range) {
+        this.player(player).playSound(sound, position.getX(), position.getY(), position.getZ());
+      }
+    }
+  }
+
   /**
    * Get a variant of the BungeeCord {@link net.md_5.bungee.api.chat.BaseComponent} serializer 
    * emitting the format most appropriate for the running server.
@@ -45,43 +45,34 @@ final class BukkitBossBarListener extends AbstractBossBarListener<Player, org.bu
   }
 
   @Override
-  public void bossBarNameChanged(@NonNull final BossBar bar, @NonNull final Component oldName, @NonNull final Component newName) {
-    this.handle(bar, newName, (val, bukkit) -> {
+  protected void update(final @NonNull BossBar adventure, final org.bukkit.boss.@NonNull BossBar bukkit, final int changes) {
+    if((changes & CHANGE_NAME) != 0) {
       final NameSetter setter = SET_NAME.get(bukkit);
       if(setter != null) {
-        setter.name(bukkit, val);
+        setter.name(bukkit, adventure.name());
       }
-    });
-  }
-
-  @Override
-  public void bossBarPercentChanged(@NonNull final BossBar bar, final float oldPercent, final float newPercent) {
-    this.handle(bar, newPercent, (val, bukkit) -> bukkit.setProgress(val));
-  }
-
-  @Override
-  public void bossBarColorChanged(@NonNull final BossBar bar, final BossBar.@NonNull Color oldColor, final BossBar.@NonNull Color newColor) {
-    this.handle(bar, newColor, (val, bukkit) -> bukkit.setColor(bukkit(val)));
-  }
-
-  @Override
-  public void bossBarOverlayChanged(@NonNull final BossBar bar, final BossBar.@NonNull Overlay oldOverlay, final BossBar.@NonNull Overlay newOverlay) {
-    this.handle(bar, newOverlay, (val, bukkit) -> bukkit.setStyle(bukkit(val)));
-  }
-
-  @Override
-  public void bossBarFlagsChanged(@NonNull final BossBar bar, @NonNull final Set<BossBar.Flag> oldFlags, @NonNull final Set<BossBar.Flag> newFlags) {
-    this.handle(bar, newFlags, (val, bukkit) -> {
+    }
+    if((changes & CHANGE_PERCENT) != 0) {
+      bukkit.setProgress(adventure.percent());
+    }
+    if((changes & CHANGE_COLOR) != 0) {
+      bukkit.setColor(bukkit(adventure.color()));
+    }
+    if((changes & CHANGE_OVERLAY) != 0) {
+      bukkit.setStyle(bukkit(adventure.overlay()));
+    }
+    if((changes & CHANGE_FLAGS) != 0) {
+      final Set<BossBar.Flag> flags = adventure.flags();
       for(int i = 0, length = FLAGS.length; i < length; i++) {
         final BossBar.Flag flag = FLAGS[i];
         final BarFlag bukkitFlag = bukkit(flag);
-        if(val.contains(flag)) {
+        if(flags.contains(flag)) {
           bukkit.addFlag(bukkitFlag);
         } else {
           bukkit.removeFlag(bukkitFlag);
         }
       }
-    });
+    }
   }
 
   private static BarColor bukkit(final BossBar.@NonNull Color color) {
@@ -157,6 +148,11 @@ final class BukkitBossBarListener extends AbstractBossBarListener<Player, org.bu
     return bar.getPlayers().isEmpty();
   }
 
+  @Override
+  protected int viewers(final org.bukkit.boss.@NonNull BossBar bar) {
+    return bar.getPlayers().size();
+  }
+
   @Override
   protected void hideFromAll(final org.bukkit.boss.@NonNull BossBar bar) {
     bar.removeAll();
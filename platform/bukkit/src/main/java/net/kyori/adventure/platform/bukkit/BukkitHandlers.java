@@ -23,6 +23,7 @@
  */
 package net.kyori.adventure.platform.bukkit;
 
+import java.util.Collection;
 import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.platform.common.Handler;
@@ -87,6 +88,21 @@ final class BukkitHandlers {
       this.play(viewer, sound, new Location(viewer.getWorld(), x, y, z));
     }
 
+    @Override
+    public void broadcast(final @NonNull Collection<? extends Player> viewers, final @NonNull Sound sound, final double x, final double y, final double z) {
+      if(viewers.isEmpty()) return;
+      final Object packet = CraftBukkitHandlers.soundPacket(sound, x, y, z);
+      if(packet != null) {
+        CraftBukkitHandlers.sendPacket(viewers, packet);
+        return;
+      }
+
+      final Location position = new Location(viewers.iterator().next().getWorld(), x, y, z);
+      for(final Player viewer : viewers) {
+        this.play(viewer, sound, position);
+      }
+    }
+
     protected abstract void play(final @NonNull Player viewer, final @NonNull Sound sound, final @NonNull Location position);
 
     static @NonNull String name(final @Nullable Key name) {
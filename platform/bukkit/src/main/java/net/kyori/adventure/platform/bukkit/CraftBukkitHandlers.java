@@ -23,6 +23,7 @@
  */
 package net.kyori.adventure.platform.bukkit;
 
+import com.google.common.collect.MapMaker;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.io.DataInputStream;
@@ -31,6 +32,10 @@ import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.bossbar.BossBar;
@@ -43,7 +48,10 @@ import net.kyori.adventure.nbt.StringBinaryTag;
 import net.kyori.adventure.platform.common.AbstractBossBarListener;
 import net.kyori.adventure.platform.common.Handler;
 import net.kyori.adventure.platform.common.Knobs;
+import net.kyori.adventure.platform.common.TitleStates;
+import net.kyori.adventure.platform.common.Tracing;
 import net.kyori.adventure.platform.common.TypedHandler;
+import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
@@ -57,6 +65,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import static java.lang.invoke.MethodHandles.dropArguments;
+import static java.lang.invoke.MethodHandles.filterReturnValue;
 import static java.lang.invoke.MethodType.methodType;
 import static net.kyori.adventure.platform.bukkit.BukkitHandlers.legacy;
 import static net.kyori.adventure.platform.bukkit.Crafty.findConstructor;
@@ -72,46 +81,123 @@ final class CraftBukkitHandlers {
   private static final @Nullable Class<? extends Player> CLASS_CRAFT_PLAYER = Crafty.findCraftClass("entity.CraftPlayer", Player.class);
 
   // Packets //
-  private static final @Nullable MethodHandle CRAFT_PLAYER_GET_HANDLE;
-  private static final @Nullable MethodHandle ENTITY_PLAYER_GET_CONNECTION;
-  private static final @Nullable MethodHandle PLAYER_CONNECTION_SEND_PACKET;
+  private static final @Nullable MethodHandle PLAYER_GET_CONNECTION; // (Player)Object
+  private static final @Nullable MethodHandle PLAYER_CONNECTION_SEND_PACKET; // (Object, Object)void
 
   static {
     final /* @Nullable */ Class<?> craftPlayerClass = Crafty.findCraftClass("entity.CraftPlayer");
     final /* @Nullable */ Class<?> packetClass = Crafty.findNmsClass("Packet");
-    /* @Nullable */ MethodHandle craftPlayerGetHandle = null;
-    /* @Nullable */ MethodHandle entityPlayerGetConnection = null;
+    /* @Nullable */ MethodHandle playerGetConnection = null;
     /* @Nullable */ MethodHandle playerConnectionSendPacket = null;
     if(craftPlayerClass != null && packetClass != null) {
       try {
         final Method getHandleMethod = craftPlayerClass.getMethod("getHandle");
         final Class<?> entityPlayerClass = getHandleMethod.getReturnType();
-        craftPlayerGetHandle = Crafty.lookup().unreflect(getHandleMethod);
+        final MethodHandle craftPlayerGetHandle = Crafty.lookup().unreflect(getHandleMethod);
         final Field playerConnectionField = entityPlayerClass.getField("playerConnection");
-        entityPlayerGetConnection = Crafty.lookup().unreflectGetter(playerConnectionField);
+        final MethodHandle entityPlayerGetConnection = Crafty.lookup().unreflectGetter(playerConnectionField);
         final Class<?> playerConnectionClass = playerConnectionField.getType();
-        playerConnectionSendPacket = Crafty.lookup().findVirtual(playerConnectionClass, "sendPacket", methodType(void.class, packetClass));
+        // Compose and erase the handles, so they can be called with invokeExact and no boxing through generic invocation
+        playerGetConnection = filterReturnValue(craftPlayerGetHandle, entityPlayerGetConnection)
+          .asType(methodType(Object.class, Player.class));
+        playerConnectionSendPacket = Crafty.lookup().findVirtual(playerConnectionClass, "sendPacket", methodType(void.class, packetClass))
+          .asType(methodType(void.class, Object.class, Object.class));
       } catch(final NoSuchMethodException | IllegalAccessException | NoSuchFieldException ex) {
         Knobs.logError("finding packet send methods", ex);
       }
     }
-    CRAFT_PLAYER_GET_HANDLE = craftPlayerGetHandle;
-    ENTITY_PLAYER_GET_CONNECTION = entityPlayerGetConnection;
+    PLAYER_GET_CONNECTION = playerGetConnection;
     PLAYER_CONNECTION_SEND_PACKET = playerConnectionSendPacket;
   }
 
-  static void sendPacket(final @NonNull Player player, final @Nullable Object packet) {
-    if(packet == null) {
-      return;
+  /**
+   * Resolved {@code PlayerConnection}s, by player.
+   *
+   * <p>Keys are weak and compared by identity, so entries will not outlive a {@link Player} instance.</p>
+   */
+  private static final Map<Player, Object> CONNECTIONS = new MapMaker().weakKeys().makeMap();
+
+  /**
+   * Get the native connection for a player, resolving it if it is not already known.
+   *
+   * @param player the player
+   * @return a {@code PlayerConnection}, or null if the player is not yet connected
+   * @throws Throwable if thrown while looking up the connection
+   */
+  static @Nullable Object connection(final @NonNull Player player) throws Throwable {
+    Object connection = CONNECTIONS.get(player);
+    if(connection == null) {
+      connection = (Object) PLAYER_GET_CONNECTION.invokeExact(player);
+      if(connection != null) {
+        CONNECTIONS.put(player, connection);
+      }
     }
+    return connection;
+  }
+
+  /**
+   * Discard any cached connection for a player.
+   *
+   * <p>This should be called whenever the server may have replaced the player's entity,
+   * such as after a respawn or world change.</p>
+   *
+   * @param player the player
+   */
+  static void invalidateConnection(final @NonNull Player player) {
+    CONNECTIONS.remove(player);
+  }
+
+  /**
+   * Send a packet to a player.
+   *
+   * <p>When enabled, the packet will only be flushed at the end of the tick.</p>
+   *
+   * @param player player to send to
+   * @param packet packet to send
+   * @see PacketFlusher
+   */
+  static void sendPacket(final @NonNull Player player, final @Nullable Object packet) {
+    if(packet == null) return;
 
     try {
-      PLAYER_CONNECTION_SEND_PACKET.invoke(ENTITY_PLAYER_GET_CONNECTION.invoke(CRAFT_PLAYER_GET_HANDLE.invoke(player)), packet);
+      final Object connection = connection(player);
+      if(connection != null) {
+        PacketFlusher.defer(player, packet);
+        final Tracing.Span span = Tracing.begin(Tracing.Kind.SEND_PACKET);
+        try {
+          PLAYER_CONNECTION_SEND_PACKET.invokeExact(connection, packet);
+        } finally {
+          span.end(packet, 1);
+        }
+      }
     } catch(final Throwable throwable) {
       Knobs.logError("sending packet to user", throwable);
     }
   }
 
+  /**
+   * Send the same packet to several players.
+   *
+   * <p>When enabled, the packet will only be encoded once.</p>
+   *
+   * @param players players to send to
+   * @param packet packet to send
+   * @see PacketMulticast
+   */
+  static void sendPacket(final @NonNull Collection<? extends Player> players, final @Nullable Object packet) {
+    if(packet == null || players.isEmpty()) {
+      return;
+    }
+
+    if(players.size() > 1 && PacketMulticast.isAvailable()) {
+      PacketMulticast.send(players, packet);
+    } else {
+      for(final Player player : players) {
+        sendPacket(player, packet);
+      }
+    }
+  }
+
   static class PacketSendingHandler<V extends CommandSender> extends TypedHandler<V> {
 
     @SuppressWarnings("unchecked")
@@ -121,13 +207,18 @@ final class CraftBukkitHandlers {
 
     @Override
     public boolean isAvailable() {
-      return ENABLED && super.isAvailable() && CRAFT_PLAYER_GET_HANDLE != null && ENTITY_PLAYER_GET_CONNECTION != null && PLAYER_CONNECTION_SEND_PACKET != null
+      return ENABLED && super.isAvailable() && PLAYER_GET_CONNECTION != null && PLAYER_CONNECTION_SEND_PACKET != null
         && MinecraftComponentSerializer.supported();
     }
 
     public void send(final @NonNull V player, final @Nullable Object packet) {
       sendPacket((Player) player, packet);
     }
+
+    @SuppressWarnings("unchecked")
+    public void sendAll(final @NonNull Collection<? extends V> players, final @Nullable Object packet) {
+      sendPacket((Collection<? extends Player>) players, packet);
+    }
   }
 
   // Components //
@@ -205,6 +296,11 @@ final class CraftBukkitHandlers {
       this.send(target, message);
     }
 
+    @Override
+    public void sendAll(final @NonNull Collection<? extends CommandSender> targets, final @NonNull Object message, final MessageType type) {
+      this.sendAll(targets, message);
+    }
+
     private Object messageType(final @NonNull MessageType type) {
       if(type == MessageType.CHAT) {
         return MESSAGE_TYPE_CHAT;
@@ -213,6 +309,63 @@ final class CraftBukkitHandlers {
     }
   }
 
+  // Sounds //
+
+  private static final @Nullable Class<?> CLASS_SOUND_CATEGORY = Crafty.findNmsClass("SoundCategory");
+  private static final @Nullable Class<?> CLASS_MINECRAFT_KEY = Crafty.findNmsClass("MinecraftKey");
+  private static final @Nullable Class<?> CLASS_VEC_3D = Crafty.findNmsClass("Vec3D");
+  private static final @Nullable MethodHandle NEW_MINECRAFT_KEY = Crafty.findConstructor(CLASS_MINECRAFT_KEY, String.class);
+  private static final @Nullable MethodHandle NEW_VEC_3D = Crafty.findConstructor(CLASS_VEC_3D, double.class, double.class, double.class);
+  private static final @Nullable Class<?> CLASS_CUSTOM_SOUND_PACKET = Crafty.findNmsClass("PacketPlayOutCustomSoundEffect");
+  private static final @Nullable MethodHandle NEW_CUSTOM_SOUND_PACKET = Crafty.findConstructor(CLASS_CUSTOM_SOUND_PACKET, CLASS_MINECRAFT_KEY, CLASS_SOUND_CATEGORY, CLASS_VEC_3D, float.class, float.class); // 1.13+ (name, category, position, volume, pitch)
+  private static final @Nullable MethodHandle NEW_CUSTOM_SOUND_PACKET_LEGACY = Crafty.findConstructor(CLASS_CUSTOM_SOUND_PACKET, String.class, CLASS_SOUND_CATEGORY, double.class, double.class, double.class, float.class, float.class); // 1.9-1.12 (name, category, x, y, z, volume, pitch)
+  private static final @Nullable MethodHandle NEW_NAMED_SOUND_PACKET_LEGACY = Crafty.findConstructor(Crafty.findNmsClass("PacketPlayOutNamedSoundEffect"), String.class, double.class, double.class, double.class, float.class, float.class); // 1.7-1.8 (name, x, y, z, volume, pitch)
+  private static final Object[] SOUND_CATEGORIES = soundCategories();
+
+  private static Object @NonNull [] soundCategories() {
+    final Sound.Source[] sources = Sound.Source.values();
+    final Object[] categories = new Object[sources.length];
+    for(final Sound.Source source : sources) {
+      final String name;
+      switch(source) {
+        case RECORD: name = "RECORDS"; break;
+        case BLOCK: name = "BLOCKS"; break;
+        case PLAYER: name = "PLAYERS"; break;
+        default: name = source.name(); break;
+      }
+      categories[source.ordinal()] = Crafty.findEnum(CLASS_SOUND_CATEGORY, name);
+    }
+    return categories;
+  }
+
+  /**
+   * Create a packet playing a sound at a position, to be shared between every listener.
+   *
+   * @param sound the sound
+   * @param x x coordinate
+   * @param y y coordinate
+   * @param z z coordinate
+   * @return a packet, or {@code null} if sound packets cannot be created on this server
+   */
+  static @Nullable Object soundPacket(final @NonNull Sound sound, final double x, final double y, final double z) {
+    if(!ENABLED || PLAYER_CONNECTION_SEND_PACKET == null) return null;
+
+    final String name = BukkitHandlers.PlaySound.name(sound.name());
+    final Object category = SOUND_CATEGORIES[sound.source().ordinal()];
+    try {
+      if(NEW_CUSTOM_SOUND_PACKET != null && NEW_MINECRAFT_KEY != null && NEW_VEC_3D != null && category != null) {
+        return NEW_CUSTOM_SOUND_PACKET.invoke(NEW_MINECRAFT_KEY.invoke(name), category, NEW_VEC_3D.invoke(x, y, z), sound.volume(), sound.pitch());
+      } else if(NEW_CUSTOM_SOUND_PACKET_LEGACY != null && category != null) {
+        return NEW_CUSTOM_SOUND_PACKET_LEGACY.invoke(name, category, x, y, z, sound.volume(), sound.pitch());
+      } else if(NEW_NAMED_SOUND_PACKET_LEGACY != null) {
+        return NEW_NAMED_SOUND_PACKET_LEGACY.invoke(name, x, y, z, sound.volume(), sound.pitch());
+      }
+    } catch(final Throwable throwable) {
+      Knobs.logError("constructing sound packet for {0}", throwable, sound);
+    }
+    return null;
+  }
+
   // Titles //
 
   private static final @Nullable Class<?> CLASS_TITLE_PACKET = Crafty.findNmsClass("PacketPlayOutTitle");
@@ -262,6 +415,7 @@ final class CraftBukkitHandlers {
   }
 
   static class Titles extends PacketSendingHandler<Player> implements Handler.Titles<Player> {
+    private final TitleStates<Player> states = new TitleStates<>();
 
     @Override
     public boolean isAvailable() {
@@ -270,42 +424,77 @@ final class CraftBukkitHandlers {
 
     @Override
     public void send(final @NonNull Player viewer, final @NonNull Title title) {
-      final Object nmsTitleText = mcTextFromComponent(title.title());
-      final Object nmsSubtitleText = mcTextFromComponent(title.subtitle());
-      try {
-        final Object titlePacket = CONSTRUCTOR_TITLE_MESSAGE.invoke(TITLE_ACTION_TITLE, nmsTitleText);
-        final Object subtitlePacket = CONSTRUCTOR_TITLE_MESSAGE.invoke(TITLE_ACTION_SUBTITLE, nmsSubtitleText);
-        Object timesPacket = null;
-
-        final Title.Times times = title.times();
-        if(times != null) {
-          final int fadeIn = Titles.ticks(times.fadeIn());
-          final int stay = Titles.ticks(times.stay());
-          final int fadeOut = Titles.ticks(times.fadeOut());
-          if(fadeIn != -1 || stay != -1 || fadeOut != -1) {
-            timesPacket = CONSTRUCTOR_TITLE_TIMES.invoke(fadeIn, stay, fadeOut);
+      this.send(viewer, message(TITLE_ACTION_SUBTITLE, title.subtitle()));
+      final Title.Times times = title.times();
+      if(times != null && this.needsTimes(viewer, times)) {
+        this.send(viewer, times(times));
+      }
+      this.send(viewer, message(TITLE_ACTION_TITLE, title.title()));
+    }
+
+    @Override
+    public void broadcast(final @NonNull Collection<? extends Player> viewers, final @NonNull Title title) {
+      if(viewers.isEmpty()) return;
+      // each packet is built once, and times are sent only to viewers whose client needs them
+      final List<Player> needsTimes = new ArrayList<>(viewers.size());
+      final Title.Times times = title.times();
+      if(times != null) {
+        for(final Player viewer : viewers) {
+          if(this.needsTimes(viewer, times)) {
+            needsTimes.add(viewer);
           }
         }
+      }
 
-        this.send(viewer, subtitlePacket);
-        if(timesPacket != null) {
-          this.send(viewer, timesPacket);
-        }
-        this.send(viewer, titlePacket);
+      sendPacket(viewers, message(TITLE_ACTION_SUBTITLE, title.subtitle()));
+      if(!needsTimes.isEmpty()) {
+        sendPacket(needsTimes, times(times));
+      }
+      sendPacket(viewers, message(TITLE_ACTION_TITLE, title.title()));
+    }
+
+    private boolean needsTimes(final @NonNull Player viewer, final Title.@NonNull Times times) {
+      final int fadeIn = Titles.ticks(times.fadeIn());
+      final int stay = Titles.ticks(times.stay());
+      final int fadeOut = Titles.ticks(times.fadeOut());
+      if(fadeIn == -1 && stay == -1 && fadeOut == -1) return false;
+      return this.states.times(viewer, fadeIn, stay, fadeOut);
+    }
+
+    private static @Nullable Object message(final @Nullable Object action, final @NonNull Component message) {
+      try {
+        return CONSTRUCTOR_TITLE_MESSAGE.invoke(action, mcTextFromComponent(message));
       } catch(final Throwable throwable) {
         Knobs.logError("constructing legacy MC title packet", throwable);
+        return null;
+      }
+    }
+
+    private static @Nullable Object times(final Title.@NonNull Times times) {
+      try {
+        return CONSTRUCTOR_TITLE_TIMES.invoke(Titles.ticks(times.fadeIn()), Titles.ticks(times.stay()), Titles.ticks(times.fadeOut()));
+      } catch(final Throwable throwable) {
+        Knobs.logError("constructing legacy MC title packet", throwable);
+        return null;
       }
     }
 
     @Override
     public void clear(final @NonNull Player viewer) {
+      this.states.invalidate(viewer);
       viewer.sendTitle("", "", -1, -1, -1);
     }
 
     @Override
     public void reset(final @NonNull Player viewer) {
+      this.states.invalidate(viewer);
       viewer.resetTitle();
     }
+
+    @Override
+    public void invalidate(final @NonNull Player viewer) {
+      this.states.invalidate(viewer);
+    }
   }
 
   static class BossBarNameSetter implements BukkitBossBarListener.NameSetter {
@@ -374,35 +563,33 @@ final class CraftBukkitHandlers {
       return ENABLED && PhantomEntity.Impl.SUPPORTED && Crafty.hasClass("org.bukkit.entity.Wither");
     }
 
-    @Override
-    public void bossBarNameChanged(final @NonNull BossBar bar, final @NonNull Component oldName, final @NonNull Component newName) {
-      this.handle(bar, newName, (val, entity) -> {
-        if(entity.entity() != null) {
-          entity.entity().setCustomName(legacy(val));
-          entity.sendUpdate();
-        }
-      });
-    }
-
     private static double health(final float percent, final double maxHealth) {
       return percent * (maxHealth - 0.1f) + 0.1f; // don't go to zero health -- if we do the death animation is shown
     }
 
     @Override
     @SuppressWarnings("deprecation")
-    public void bossBarPercentChanged(final @NonNull BossBar bar, final float oldPercent, final float newPercent) {
-      this.handle(bar, newPercent, (val, entity) -> {
-        if(entity.entity() != null) {
-          entity.entity().setHealth(health(val, entity.entity().getMaxHealth()));
-          entity.sendUpdate();
+    protected void update(final @NonNull BossBar adventure, final @NonNull PhantomEntity<Wither> bar, final int changes) {
+      final /* @Nullable */ Wither entity = bar.entity();
+      if(entity == null || (changes & (CHANGE_NAME | CHANGE_PERCENT)) == 0) return;
+
+      synchronized(bar) {
+        // the bar may have been hidden since this update started, and the entity reused by another bar
+        if(bar.owner() != adventure) return;
+        if((changes & CHANGE_NAME) != 0) {
+          entity.setCustomName(legacy(adventure.name()));
         }
-      });
+        if((changes & CHANGE_PERCENT) != 0) {
+          entity.setHealth(health(adventure.percent(), entity.getMaxHealth()));
+        }
+        bar.sendUpdate();
+      }
     }
 
     @Override
     @SuppressWarnings("deprecation")
     protected @NonNull PhantomEntity<Wither> newInstance(final @NonNull BossBar adventure) {
-      final PhantomEntity<Wither> tracker = this.tracker.create(Wither.class)
+      final PhantomEntity<Wither> tracker = this.tracker.borrow(adventure, Wither.class)
         .relative(WITHER_DISTANCE, WITHER_OFFSET_PITCH, 0)
         .invisible(true)
         .data(WITHER_DATA_INVULN_TICKS, 890); // hide the shimmering armor when below 50% health
@@ -429,10 +616,20 @@ final class CraftBukkitHandlers {
       return !bar.watching();
     }
 
+    @Override
+    protected int viewers(final @NonNull PhantomEntity<Wither> bar) {
+      return bar.watchers();
+    }
+
     @Override
     protected void hideFromAll(final @NonNull PhantomEntity<Wither> bar) {
       bar.removeAll();
     }
+
+    @Override
+    protected void dispose(final @NonNull PhantomEntity<Wither> bar) {
+      this.tracker.release(bar);
+    }
   }
 
   protected static abstract class AbstractBooks extends PacketSendingHandler<Player> implements Handler.Books<Player> {
@@ -463,7 +660,7 @@ final class CraftBukkitHandlers {
         //send(viewer, newSetHeldItemPacket(viewer, bookStack));
         this.sendOpenPacket(viewer);
       } catch(final Throwable throwable) {
-        Knobs.logError("sending book to " + viewer, throwable);
+        Knobs.logError("sending book to {0}", throwable, viewer);
       } finally {
         viewer.getInventory().setItemInHand(current);
       }
@@ -563,7 +760,7 @@ final class CraftBukkitHandlers {
         MC_ITEMSTACK_SET_TAG.invoke(mcStack, mcTag);
         return (ItemStack) CRAFT_ITEMSTACK_CRAFT_MIRROR.invoke(mcStack);
       } catch(final Throwable error) {
-        Knobs.logError("setting tag on stack " + input, error);
+        Knobs.logError("setting tag on stack {0}", error, input);
         return input;
       }
     }
@@ -32,6 +32,7 @@ import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Comparator;
 import net.kyori.adventure.platform.common.Knobs;
+import net.kyori.adventure.platform.common.Tracing;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.ComponentSerializer;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
@@ -146,21 +147,27 @@ public class MinecraftComponentSerializer implements ComponentSerializer<Compone
     if(!supported()) {
       throw new IllegalStateException("Not supported");
     }
-    if(MC_TEXT_GSON != null) {
-      final JsonElement json = BukkitAudienceProvider.GSON_SERIALIZER.serializer().toJsonTree(component);
-      try {
-        return MC_TEXT_GSON.fromJson(json, CLASS_CHAT_COMPONENT);
-      } catch(final Throwable error) {
-        Knobs.logError("converting adventure Component to MC Component", error);
-        throw new RuntimeException(error); // unrecoverable
-      }
-    } else {
-      try {
-        return TEXT_SERIALIZER_DESERIALIZE.invoke(BukkitAudienceProvider.GSON_SERIALIZER.serialize(component));
-      } catch(final Throwable error) {
-        Knobs.logError("converting adventure Component to MC Component (via 1.7 String serialization)", error);
-        throw new RuntimeException(error); // unrecoverable
+    final Tracing.Span span = Tracing.begin(Tracing.Kind.SERIALIZE);
+    try {
+      if(MC_TEXT_GSON != null) {
+        final JsonElement json = BukkitAudienceProvider.GSON_SERIALIZER.serializer().toJsonTree(component);
+        try {
+          return MC_TEXT_GSON.fromJson(json, CLASS_CHAT_COMPONENT);
+        } catch(final Throwable error) {
+          Knobs.logError("converting adventure Component to MC Component", error);
+          throw new RuntimeException(error); // unrecoverable
+        }
+      } else {
+        try {
+          final String json = BukkitAudienceProvider.GSON_SERIALIZER.serialize(component);
+          return TEXT_SERIALIZER_DESERIALIZE.invoke(json);
+        } catch(final Throwable error) {
+          Knobs.logError("converting adventure Component to MC Component (via 1.7 String serialization)", error);
+          throw new RuntimeException(error); // unrecoverable
+        }
       }
+    } finally {
+      span.end(this, 1);
     }
   }
 }
@@ -0,0 +1,238 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.bukkit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.kyori.adventure.platform.common.Knobs;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Holds back the flush of packets sent to players, flushing every channel written to once at the end of the tick.
+ *
+ * <p>Packets are still sent through {@code PlayerConnection#sendPacket}, so the network manager's queue, protocol
+ * checks and any hooks other plugins rely on all apply as normal. Only the flush that follows each of our packets
+ * is held back, by a handler at the end of the channel's pipeline. This trades a little latency within the tick
+ * for far fewer flushes (and so system calls) when many packets are sent to a player in the same tick.
+ * Packets sent by the server itself still flush immediately, taking any of ours that are waiting along with them.</p>
+ *
+ * <p>This is opt-in, with the {@code net.kyori.adventure.batchPacketFlush} system property, and needs a server
+ * that calls Paper's {@code ServerTickEndEvent}. Once the last plugin stops flushing, the handlers are removed
+ * from every pipeline, so a reloaded copy of this class can install its own.</p>
+ */
+final class PacketFlusher {
+  // net.kyori.adventure.batchPacketFlush
+  private static final boolean ENABLED = Boolean.getBoolean("net.kyo".concat("ri.adventure.batchPacketFlush")) && Knobs.enabled("batchflush");
+  private static final String HANDLER_NAME = "adventure_flush";
+  private static final @Nullable Class<? extends Event> CLASS_TICK_END_EVENT = findTickEndEvent();
+
+  private static final Set<DeferringHandler> PENDING = ConcurrentHashMap.newKeySet();
+  private static final Set<DeferringHandler> INSTALLED = ConcurrentHashMap.newKeySet();
+  private static final AtomicInteger FLUSHERS = new AtomicInteger();
+
+  private PacketFlusher() {
+  }
+
+  private static @Nullable Class<? extends Event> findTickEndEvent() {
+    try {
+      return Class.forName("com.destroystokyo.paper.event.server.ServerTickEndEvent").asSubclass(Event.class);
+    } catch(final ClassNotFoundException | ClassCastException ex) {
+      return null; // not Paper, there is no way to run at the end of a tick
+    }
+  }
+
+  /**
+   * Start flushing pending packets at the end of every tick on behalf of a plugin.
+   *
+   * <p>Flushes are only held back while at least one plugin is flushing.</p>
+   *
+   * @param plugin the plugin to register with
+   * @return the registered listener, or null if batching is not enabled
+   */
+  static @Nullable Listener start(final @NonNull Plugin plugin) {
+    if(!ENABLED || CLASS_TICK_END_EVENT == null || !PlayerChannels.isAvailable()) return null;
+    final Listener listener = new Listener() {};
+    plugin.getServer().getPluginManager().registerEvent(CLASS_TICK_END_EVENT, listener, EventPriority.MONITOR, (l, event) -> flush(), plugin, false);
+    FLUSHERS.incrementAndGet();
+    return listener;
+  }
+
+  /**
+   * Stop flushing on behalf of a plugin, flushing anything still pending.
+   *
+   * <p>When no plugin is left flushing, the handlers are also removed from every pipeline.</p>
+   *
+   * @param listener the listener returned by {@link #start(Plugin)}
+   */
+  static void stop(final @Nullable Listener listener) {
+    if(listener == null) return;
+    HandlerList.unregisterAll(listener);
+    final boolean last = FLUSHERS.decrementAndGet() <= 0;
+    flush();
+    if(last) {
+      for(final DeferringHandler handler : INSTALLED) {
+        handler.uninstall();
+      }
+    }
+  }
+
+  /**
+   * Hold back the flush after a packet that is about to be sent to a player.
+   *
+   * <p>The packet must then be sent normally.</p>
+   *
+   * @param player the player
+   * @param packet the packet
+   */
+  static void defer(final @NonNull Player player, final @NonNull Object packet) {
+    if(FLUSHERS.get() <= 0) return;
+    final Channel channel = PlayerChannels.channel(player);
+    if(channel == null) return;
+
+    final DeferringHandler handler = handler(channel);
+    if(handler == null) return;
+    handler.expected.add(packet);
+    PENDING.add(handler); // before sending, so the flush is queued on the event loop after the write
+  }
+
+  /**
+   * Write a message straight to a channel, holding back its flush until the end of the tick when batching.
+   *
+   * @param channel the channel
+   * @param message the message to write
+   */
+  static void write(final @NonNull Channel channel, final @NonNull Object message) {
+    final DeferringHandler handler = FLUSHERS.get() > 0 ? handler(channel) : null;
+    if(handler == null) {
+      channel.writeAndFlush(message);
+    } else {
+      channel.write(message);
+      PENDING.add(handler); // after writing, so the flush is queued on the event loop after the write
+    }
+  }
+
+  private static @Nullable DeferringHandler handler(final @NonNull Channel channel) {
+    final ChannelHandler existing = channel.pipeline().get(HANDLER_NAME);
+    if(existing instanceof DeferringHandler) {
+      return (DeferringHandler) existing;
+    } else if(existing == null) {
+      final DeferringHandler handler = new DeferringHandler();
+      try {
+        channel.pipeline().addLast(HANDLER_NAME, handler);
+      } catch(final IllegalArgumentException ex) {
+        return null; // added at the same time, the packet will just be flushed normally
+      }
+      return handler;
+    } else {
+      return null; // from a copy of this class in another plugin that is still flushing
+    }
+  }
+
+  private static void flush() {
+    for(final Iterator<DeferringHandler> it = PENDING.iterator(); it.hasNext();) {
+      final DeferringHandler handler = it.next();
+      it.remove();
+      handler.flushPending();
+    }
+  }
+
+  /**
+   * Holds back the flush that follows a write of one of our packets.
+   *
+   * <p>Writes and flushes happen on the channel's event loop. Held flushes are released by a task on the same
+   * event loop, so it runs after any writes that were queued before it.</p>
+   */
+  private static final class DeferringHandler extends ChannelOutboundHandlerAdapter {
+    final Set<Object> expected = ConcurrentHashMap.newKeySet();
+    private volatile @Nullable ChannelHandlerContext context;
+    private boolean deferFlush; // event loop only
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) {
+      this.context = ctx;
+      INSTALLED.add(this);
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) {
+      INSTALLED.remove(this);
+      PENDING.remove(this);
+      this.context = null;
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+      if(this.expected.remove(msg)) {
+        this.deferFlush = true;
+      }
+      ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(final ChannelHandlerContext ctx) throws Exception {
+      if(this.deferFlush) {
+        this.deferFlush = false;
+      } else {
+        ctx.flush();
+      }
+    }
+
+    void flushPending() {
+      final ChannelHandlerContext ctx = this.context;
+      if(ctx == null || !ctx.channel().isOpen()) return;
+      ctx.executor().execute(() -> {
+        // anything still expected was dropped or replaced before reaching the channel
+        this.expected.clear();
+        this.deferFlush = false;
+        ctx.flush();
+      });
+    }
+
+    void uninstall() {
+      final ChannelHandlerContext ctx = this.context;
+      if(ctx == null) return;
+      ctx.executor().execute(() -> {
+        if(ctx.isRemoved()) return;
+        this.expected.clear();
+        this.deferFlush = false;
+        ctx.flush();
+        ctx.pipeline().remove(this);
+      });
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.bukkit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import net.kyori.adventure.platform.common.Knobs;
+import net.kyori.adventure.platform.common.Tracing;
+import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Sends a single packet to many players by encoding it only once.
+ *
+ * <p>The packet is written into a pooled buffer, and a duplicate of that buffer is written
+ * to each player's channel. Compression, framing and encryption are still applied per-channel
+ * by the later stages of each pipeline.</p>
+ *
+ * <p>Encoded packets are written to the channel directly, so they skip {@code PlayerConnection#sendPacket} and
+ * any packet listeners hooked in there, such as ProtocolLib's or Paper's. Only enable this when no plugin needs
+ * to see or modify these packets. When {@link PacketFlusher} is batching flushes, the writes are flushed with
+ * the rest at the end of the tick.</p>
+ *
+ * <p>This is opt-in, with the {@code net.kyori.adventure.enableNettyMulticast} system property.
+ * Any player whose pipeline does not use the vanilla packet encoder
+ * (for example, when a protocol translator is installed) receives packets through the normal path.</p>
+ */
+final class PacketMulticast {
+  // net.kyori.adventure.enableNettyMulticast
+  private static final boolean ENABLED = Boolean.getBoolean("net.kyo".concat("ri.adventure.enableNettyMulticast")) && Knobs.enabled("nettymulticast");
+  private static final String HANDLER_ENCODER = "encoder";
+
+  private static final @Nullable Class<?> CLASS_PACKET = Crafty.findNmsClass("Packet");
+  private static final @Nullable Class<?> CLASS_PACKET_DATA_SERIALIZER = Crafty.findNmsClass("PacketDataSerializer");
+  private static final @Nullable Class<?> CLASS_PACKET_ENCODER = Crafty.findNmsClass("PacketEncoder");
+  private static final @Nullable Class<?> CLASS_ENUM_PROTOCOL = Crafty.findNmsClass("EnumProtocol");
+  private static final @Nullable Class<?> CLASS_ENUM_PROTOCOL_DIRECTION = Crafty.findNmsClass("EnumProtocolDirection");
+  private static final @Nullable Object PROTOCOL_PLAY = Crafty.findEnum(CLASS_ENUM_PROTOCOL, "PLAY", 1);
+  private static final @Nullable Object DIRECTION_CLIENTBOUND = Crafty.findEnum(CLASS_ENUM_PROTOCOL_DIRECTION, "CLIENTBOUND", 1);
+
+  private static final @Nullable MethodHandle ENUM_PROTOCOL_GET_PACKET_ID; // (Object protocol, Object direction, Object packet)Object
+  private static final @Nullable MethodHandle PACKET_WRITE; // (Object packet, Object serializer)void
+  private static final @Nullable MethodHandle NEW_PACKET_DATA_SERIALIZER; // (ByteBuf)Object
+
+  static {
+    MethodHandle enumProtocolGetPacketId = null;
+    MethodHandle packetWrite = null;
+    MethodHandle newPacketDataSerializer = null;
+
+    if(ENABLED && CLASS_PACKET != null && CLASS_PACKET_DATA_SERIALIZER != null && CLASS_ENUM_PROTOCOL != null && CLASS_ENUM_PROTOCOL_DIRECTION != null) {
+      try {
+        // public EnumProtocol.___(EnumProtocolDirection, Packet)Integer
+        for(final Method method : CLASS_ENUM_PROTOCOL.getDeclaredMethods()) {
+          if(!Modifier.isStatic(method.getModifiers())
+            && (method.getReturnType().equals(Integer.class) || method.getReturnType().equals(int.class))
+            && method.getParameterCount() == 2
+            && method.getParameterTypes()[0].equals(CLASS_ENUM_PROTOCOL_DIRECTION)
+            && method.getParameterTypes()[1].equals(CLASS_PACKET)) {
+            method.setAccessible(true);
+            enumProtocolGetPacketId = Crafty.lookup().unreflect(method).asType(methodType(Object.class, Object.class, Object.class, Object.class));
+            break;
+          }
+        }
+
+        final MethodHandle write = Crafty.findMethod(CLASS_PACKET, "b", void.class, CLASS_PACKET_DATA_SERIALIZER);
+        if(write != null) {
+          packetWrite = write.asType(methodType(void.class, Object.class, Object.class));
+        }
+        final MethodHandle serializer = Crafty.findConstructor(CLASS_PACKET_DATA_SERIALIZER, ByteBuf.class);
+        if(serializer != null) {
+          newPacketDataSerializer = serializer.asType(methodType(Object.class, ByteBuf.class));
+        }
+      } catch(final IllegalAccessException | RuntimeException ex) {
+        Knobs.logError("finding netty multicast methods", ex);
+      }
+    }
+
+    ENUM_PROTOCOL_GET_PACKET_ID = enumProtocolGetPacketId;
+    PACKET_WRITE = packetWrite;
+    NEW_PACKET_DATA_SERIALIZER = newPacketDataSerializer;
+  }
+
+  private static final boolean SUPPORTED = ENABLED && PlayerChannels.isAvailable() && CLASS_PACKET_ENCODER != null
+    && PROTOCOL_PLAY != null && DIRECTION_CLIENTBOUND != null && ENUM_PROTOCOL_GET_PACKET_ID != null && PACKET_WRITE != null && NEW_PACKET_DATA_SERIALIZER != null;
+
+  private PacketMulticast() {
+  }
+
+  /**
+   * Get whether packets can be multicast.
+   *
+   * @return if available
+   */
+  static boolean isAvailable() {
+    return SUPPORTED;
+  }
+
+  /**
+   * Send a packet to every player provided.
+   *
+   * <p>Players that cannot receive pre-encoded packets will be sent the packet normally.</p>
+   *
+   * @param players players to send to
+   * @param packet the packet to send
+   */
+  static void send(final @NonNull Collection<? extends Player> players, final @NonNull Object packet) {
+    final ByteBuf encoded = encode(packet);
+    if(encoded == null) {
+      for(final Player player : players) {
+        CraftBukkitHandlers.sendPacket(player, packet);
+      }
+      return;
+    }
+
+    final Tracing.Span span = Tracing.begin(Tracing.Kind.MULTICAST_PACKET);
+    final int size = encoded.readableBytes();
+    final boolean chat = PlayerChannels.isChat(packet);
+    try {
+      for(final Player player : players) {
+        final Channel channel = channel(player, chat);
+        if(channel != null) {
+          PacketFlusher.write(channel, encoded.duplicate().retain());
+        } else {
+          CraftBukkitHandlers.sendPacket(player, packet);
+        }
+      }
+    } finally {
+      encoded.release();
+      span.end(packet, players.size(), size);
+    }
+  }
+
+  /**
+   * Encode a packet as it would be by the vanilla packet encoder.
+   *
+   * @param packet the packet to encode
+   * @return a buffer containing the packet id and data, or null if the packet could not be encoded
+   */
+  private static @Nullable ByteBuf encode(final @NonNull Object packet) {
+    final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer();
+    try {
+      final Object id = (Object) ENUM_PROTOCOL_GET_PACKET_ID.invokeExact(PROTOCOL_PLAY, DIRECTION_CLIENTBOUND, packet);
+      if(!(id instanceof Number)) {
+        buffer.release();
+        return null;
+      }
+      writeVarInt(buffer, ((Number) id).intValue());
+      PACKET_WRITE.invokeExact(packet, (Object) NEW_PACKET_DATA_SERIALIZER.invokeExact(buffer));
+      return buffer;
+    } catch(final Throwable throwable) {
+      buffer.release();
+      Knobs.logError("encoding packet for multicast", throwable);
+      return null;
+    }
+  }
+
+  /**
+   * Get a channel that can accept pre-encoded packets for a player.
+   *
+   * @param player the player
+   * @param chat whether the packet being sent is a chat packet
+   * @return the player's channel, or null if packets must go through the normal path
+   */
+  private static @Nullable Channel channel(final @NonNull Player player, final boolean chat) {
+    if(chat && !PlayerChannels.chatVisible(player)) return null;
+    final Channel channel = PlayerChannels.channel(player);
+    // only pipelines with the vanilla encoder are known to expect the same bytes
+    return channel != null && CLASS_PACKET_ENCODER.isInstance(channel.pipeline().get(HANDLER_ENCODER)) ? channel : null;
+  }
+
+  private static void writeVarInt(final @NonNull ByteBuf buffer, final int value) {
+    int remaining = value;
+    while((remaining & ~0x7F) != 0) {
+      buffer.writeByte((remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    buffer.writeByte(remaining);
+  }
+}
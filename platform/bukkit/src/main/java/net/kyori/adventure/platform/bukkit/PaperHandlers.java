@@ -24,6 +24,7 @@
 package net.kyori.adventure.platform.bukkit;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.function.IntConsumer;
 import net.kyori.adventure.platform.common.Handler;
 import net.kyori.adventure.platform.common.Knobs;
@@ -47,6 +48,19 @@ final class PaperHandlers {
 
     @Override
     public void send(final @NonNull Player viewer, final @NonNull Title title) {
+      viewer.sendTitle(paper(title));
+    }
+
+    @Override
+    public void broadcast(final @NonNull Collection<? extends Player> viewers, final @NonNull Title title) {
+      if(viewers.isEmpty()) return;
+      final com.destroystokyo.paper.Title paperTitle = paper(title);
+      for(final Player viewer : viewers) {
+        viewer.sendTitle(paperTitle);
+      }
+    }
+
+    private static com.destroystokyo.paper.@NonNull Title paper(final @NonNull Title title) {
       final com.destroystokyo.paper.Title.Builder paperTitle = com.destroystokyo.paper.Title.builder()
         .title(SpigotHandlers.SERIALIZER.serialize(title.title()))
         .subtitle(SpigotHandlers.SERIALIZER.serialize(title.subtitle()));
@@ -58,7 +72,7 @@ final class PaperHandlers {
         applyTime(times.fadeOut(), paperTitle::fadeOut);
       }
 
-      viewer.sendTitle(paperTitle.build());
+      return paperTitle.build();
     }
 
     /**
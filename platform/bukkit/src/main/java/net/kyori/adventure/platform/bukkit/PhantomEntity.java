@@ -24,8 +24,11 @@
 package net.kyori.adventure.platform.bukkit;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.platform.common.Knobs;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -34,6 +37,7 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Wither;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A simple tracker for clientside-only entities.
@@ -49,6 +53,16 @@ interface PhantomEntity<T extends Entity> {
    */
   T entity();
 
+  /**
+   * Get what this entity was {@link PhantomEntityTracker#borrow(Object, Class) borrowed} for.
+   *
+   * <p>Once an entity is released it may be borrowed again, so anything holding on to it should check this,
+   * while synchronized on the entity, before changing it.</p>
+   *
+   * @return the owner, or null if not borrowed
+   */
+  @Nullable Object owner();
+
   /**
    * Get if this entity is in relative mode.
    *
@@ -92,6 +106,13 @@ interface PhantomEntity<T extends Entity> {
    */
   boolean watching();
 
+  /**
+   * Count the viewers watching the tracked entity.
+   *
+   * @return the number of viewers
+   */
+  int watchers();
+
   /**
    * Set the invisibility flag on this entity.
    *
@@ -148,6 +169,14 @@ interface PhantomEntity<T extends Entity> {
    */
   void sendUpdate();
 
+  /**
+   * Update a relative entity for a viewer that has moved.
+   *
+   * <p>The tracker only calls this for viewers that are watching this entity.</p>
+   *
+   * @param player the viewer
+   * @param playerPos the viewer's new position, which must not be modified
+   */
   default void updateIfNecessary(final @NonNull Player player, final @NonNull Location playerPos) {
   }
 
@@ -178,6 +207,7 @@ interface PhantomEntity<T extends Entity> {
     private static final MethodHandle NEW_ENTITY_METADATA_PACKET = Crafty.findConstructor(CLASS_ENTITY_METADATA_PACKET, int.class, CLASS_DATA_WATCHER, boolean.class); // (entityId: int, DataWatcher, updateAll: boolean)
     private static final Class<?> CLASS_ENTITY_TELEPORT_PACKET = Crafty.findNmsClass("PacketPlayOutEntityTeleport");
     private static final MethodHandle NEW_ENTITY_TELEPORT_PACKET = Crafty.findConstructor(CLASS_ENTITY_TELEPORT_PACKET, CLASS_NMS_ENTITY);
+    private static final MethodHandle NEW_ENTITY_TELEPORT_PACKET_POSITION = findTeleportPositionConstructor(); // (entityId: int, x: int, y: int, z: int, yaw: byte, pitch: byte), in 1/32 blocks
 
     // 1.7 legacy support (Wither only) //
     private static final Class<?> CLASS_ENTITY_WITHER = Crafty.findNmsClass("EntityWither");
@@ -191,23 +221,40 @@ interface PhantomEntity<T extends Entity> {
 
     private final @NonNull PhantomEntityTracker tracker;
     private final @NonNull T entity;
+    private final Object nmsEntity;
     private final Set<Player> watching = ConcurrentHashMap.newKeySet();
+    private final Map<Player, ViewerPosition> lastPositions = new ConcurrentHashMap<>();
+    private final Map<Integer, Object> changedData = new ConcurrentHashMap<>(); // position -> value to reset to
     private volatile double relativeOffsetDistance;
     private volatile double relativeOffsetPitch;
     private volatile double relativeOffsetYaw;
     private volatile boolean locationDirty;
+    private volatile @Nullable Object owner;
 
     Impl(final @NonNull PhantomEntityTracker tracker, final @NonNull T entity) {
       this.tracker = tracker;
       this.entity = entity;
+      this.nmsEntity = nmsEntity(entity);
+    }
+
+    private static @Nullable MethodHandle findTeleportPositionConstructor() {
+      final MethodHandle onGround = Crafty.findConstructor(CLASS_ENTITY_TELEPORT_PACKET, int.class, int.class, int.class, int.class, byte.class, byte.class, boolean.class); // 1.8
+      if(onGround != null) {
+        return MethodHandles.insertArguments(onGround, 6, false);
+      }
+      return Crafty.findConstructor(CLASS_ENTITY_TELEPORT_PACKET, int.class, int.class, int.class, int.class, byte.class, byte.class); // 1.7
     }
 
     Object nmsEntity() {
-      if(!CLASS_CRAFT_ENTITY.isInstance(this.entity)) return null;
+      return this.nmsEntity;
+    }
+
+    private static Object nmsEntity(final @NonNull Entity entity) {
+      if(!CLASS_CRAFT_ENTITY.isInstance(entity)) return null;
       try {
-        return CRAFT_ENTITY_GET_HANDLE.invoke(this.entity);
+        return CRAFT_ENTITY_GET_HANDLE.invoke(entity);
       } catch(final Throwable throwable) {
-        Knobs.logError("getting CraftBukkit entity for " + this.entity, throwable);
+        Knobs.logError("getting CraftBukkit entity for {0}", throwable, entity);
         return null;
       }
     }
@@ -239,7 +286,7 @@ interface PhantomEntity<T extends Entity> {
           try {
             return NEW_SPAWN_LIVING_PACKET.invoke(mcEntity);
           } catch(final Throwable throwable) {
-            Knobs.logError("creating spawn packet for fake entity " + this.entity(), throwable);
+            Knobs.logError("creating spawn packet for fake entity {0}", throwable, this.entity());
           }
         }
       }
@@ -250,7 +297,7 @@ interface PhantomEntity<T extends Entity> {
       try {
         return NEW_ENTITY_DESTROY_PACKET.invoke(this.entity().getEntityId());
       } catch(final Throwable throwable) {
-        Knobs.logError("creating despawn packet for fake entity " + this.entity(), throwable);
+        Knobs.logError("creating despawn packet for fake entity {0}", throwable, this.entity());
         return null;
       }
     }
@@ -263,7 +310,7 @@ interface PhantomEntity<T extends Entity> {
         final Object dataWatcher = NMS_ENTITY_GET_DATA_WATCHER.invoke(nmsEntity);
         return NEW_ENTITY_METADATA_PACKET.invoke(this.entity.getEntityId(), dataWatcher, false);
       } catch(final Throwable throwable) {
-        Knobs.logError("updating metadata for fake entity " + this.entity(), throwable);
+        Knobs.logError("updating metadata for fake entity {0}", throwable, this.entity());
         return null;
       }
     }
@@ -280,11 +327,54 @@ interface PhantomEntity<T extends Entity> {
       }
     }
 
+    /**
+     * Create a packet moving this entity to a viewer's virtual position, without moving the shared entity.
+     *
+     * @param position the viewer's position, with a computed target
+     * @return a teleport packet
+     */
+    private Object createLocationUpdatePacket(final @NonNull ViewerPosition position) {
+      if(NEW_ENTITY_TELEPORT_PACKET_POSITION == null) {
+        this.location0(position.targetX, position.targetY, position.targetZ, position.targetPitch, position.targetYaw);
+        return this.createLocationUpdatePacket();
+      }
+      try {
+        return NEW_ENTITY_TELEPORT_PACKET_POSITION.invoke(
+          this.entity.getEntityId(),
+          fixedPoint(position.targetX),
+          fixedPoint(position.targetY),
+          fixedPoint(position.targetZ),
+          angle(position.targetYaw),
+          angle(position.targetPitch)
+        );
+      } catch(final Throwable throwable) {
+        Knobs.logError("creating location update packet", throwable);
+        return null;
+      }
+    }
+
+    private static int fixedPoint(final double coordinate) {
+      return (int) Math.floor(coordinate * 32d);
+    }
+
+    private static byte angle(final float degrees) {
+      return (byte) (int) Math.floor(degrees * 256f / 360f);
+    }
+
     @Override
     public T entity() {
       return this.entity;
     }
 
+    @Override
+    public @Nullable Object owner() {
+      return this.owner;
+    }
+
+    void owner(final @Nullable Object owner) {
+      this.owner = owner;
+    }
+
     @Override
     public boolean relative() {
       return this.relativeOffsetDistance != 0 || this.relativeOffsetPitch != 0 || this.relativeOffsetYaw != 0;
@@ -313,10 +403,14 @@ interface PhantomEntity<T extends Entity> {
     }
 
     private void location0(final @NonNull Location position) {
+      this.location0(position.getX(), position.getY(), position.getZ(), position.getPitch(), position.getYaw());
+    }
+
+    private void location0(final double x, final double y, final double z, final float pitch, final float yaw) {
       try {
-        NMS_ENTITY_SET_LOCATION.invoke(this.nmsEntity(), position.getX(), position.getY(), position.getZ(), position.getPitch(), position.getYaw());
+        NMS_ENTITY_SET_LOCATION.invoke(this.nmsEntity, x, y, z, pitch, yaw);
       } catch(final Throwable throwable) {
-        Knobs.logError("setting position for phantom entity " + this.entity, throwable);
+        Knobs.logError("setting position for phantom entity {0}", throwable, this.entity);
       }
     }
 
@@ -330,6 +424,11 @@ interface PhantomEntity<T extends Entity> {
       return !this.watching.isEmpty();
     }
 
+    @Override
+    public int watchers() {
+      return this.watching.size();
+    }
+
     @Override
     public PhantomEntity<T> invisible(final boolean invisible) {
       if(NMS_ENTITY_SET_INVISIBLE != null) {
@@ -361,6 +460,7 @@ interface PhantomEntity<T extends Entity> {
         try {
           final Object dataWatcher = NMS_ENTITY_GET_DATA_WATCHER.invoke(this.nmsEntity());
           DATA_WATCHER_WATCH.invoke(dataWatcher, position, value);
+          this.changedData.putIfAbsent(position, zero(value));
         } catch(final Throwable throwable) {
           Knobs.logError("watching data", throwable);
         }
@@ -371,6 +471,7 @@ interface PhantomEntity<T extends Entity> {
     @Override
     public boolean add(final @NonNull Player viewer) {
       if(this.watching.add(viewer)) {
+        this.tracker.watch(viewer, this);
         this.sendSpawnPacket(viewer);
         this.tracker.updateTrackingState(this, this.relative());
         return true;
@@ -379,15 +480,29 @@ interface PhantomEntity<T extends Entity> {
     }
 
     void sendSpawnPacket(final @NonNull Player viewer) {
-      if(this.relative()) {
-        this.location0(this.makeRelative(viewer.getLocation()));
+      if(!this.relative()) {
+        CraftBukkitHandlers.sendPacket(viewer, this.createSpawnPacket());
+        return;
+      }
+
+      final ViewerPosition position = new ViewerPosition(viewer.getLocation());
+      position.relative(this.relativeOffsetDistance, this.relativeOffsetPitch, this.relativeOffsetYaw);
+      this.lastPositions.put(viewer, position);
+      if(NEW_ENTITY_TELEPORT_PACKET_POSITION == null) {
+        // no way to spawn at a virtual position, so the shared entity has to be moved first
+        this.location0(position.targetX, position.targetY, position.targetZ, position.targetPitch, position.targetYaw);
+        CraftBukkitHandlers.sendPacket(viewer, this.createSpawnPacket());
+      } else {
+        CraftBukkitHandlers.sendPacket(viewer, this.createSpawnPacket());
+        CraftBukkitHandlers.sendPacket(viewer, this.createLocationUpdatePacket(position));
       }
-      CraftBukkitHandlers.sendPacket(viewer, this.createSpawnPacket());
     }
 
     @Override
     public boolean remove(final @NonNull Player viewer) {
       if(this.watching.remove(viewer)) {
+        this.tracker.unwatch(viewer, this);
+        this.lastPositions.remove(viewer);
         CraftBukkitHandlers.sendPacket(viewer, this.createDespawnPacket());
         if(this.watching.isEmpty()) {
           this.tracker.handleRemove(this);
@@ -400,41 +515,215 @@ interface PhantomEntity<T extends Entity> {
     @Override
     public void removeAll() {
       if(!this.watching.isEmpty()) {
-        final Object despawnPacket = this.createDespawnPacket();
+        CraftBukkitHandlers.sendPacket(this.watching, this.createDespawnPacket());
         for(final Player viewer : this.watching) {
-          CraftBukkitHandlers.sendPacket(viewer, despawnPacket);
+          this.tracker.unwatch(viewer, this);
         }
         this.watching.clear();
+        this.lastPositions.clear();
         this.tracker.handleRemove(this);
       }
     }
 
+    /**
+     * Clear per-viewer state and restore the entity's data so this entity can be reused from a pool.
+     *
+     * <p>The entity must not have any viewers.</p>
+     */
+    @SuppressWarnings("deprecation")
+    void reset() {
+      this.owner = null;
+      this.relativeOffsetDistance = 0;
+      this.relativeOffsetPitch = 0;
+      this.relativeOffsetYaw = 0;
+      this.locationDirty = false;
+      this.lastPositions.clear();
+
+      // the next borrower should see a freshly created entity
+      this.location0(0, 0, 0, 0, 0);
+      this.invisible(false);
+      if(this.entity instanceof LivingEntity) {
+        // called through LivingEntity, which declared these before 1.8
+        final LivingEntity living = (LivingEntity) this.entity;
+        living.setCustomName(null);
+        living.setCustomNameVisible(false);
+        living.setHealth(living.getMaxHealth());
+      }
+      for(final Map.Entry<Integer, Object> data : this.changedData.entrySet()) {
+        this.data(data.getKey(), data.getValue());
+      }
+      this.changedData.clear();
+    }
+
+    /**
+     * Get the value tracked data starts at, for the type of a value.
+     *
+     * <p>Entities start with zeroed data for the positions phantom entities set.</p>
+     *
+     * @param value a value of the tracked type
+     * @return the zero value of that type
+     */
+    private static @NonNull Object zero(final @NonNull Object value) {
+      if(value instanceof Byte) return (byte) 0;
+      if(value instanceof Short) return (short) 0;
+      if(value instanceof Integer) return 0;
+      if(value instanceof Float) return 0f;
+      if(value instanceof String) return "";
+      return value; // no known zero, so keep the value that was set
+    }
+
     @Override
     public void sendUpdate() {
       final Object metadataPacket = this.createMetadataUpdatePacket();
       final Object locationPacket = this.locationDirty ? this.createLocationUpdatePacket() : null;
-      for(final Player ply : this.watching) {
-        CraftBukkitHandlers.sendPacket(ply, metadataPacket);
-        CraftBukkitHandlers.sendPacket(ply, locationPacket);
-      }
+      CraftBukkitHandlers.sendPacket(this.watching, metadataPacket);
+      CraftBukkitHandlers.sendPacket(this.watching, locationPacket);
       this.locationDirty = false;
     }
 
-    private Location makeRelative(final @NonNull Location pos) {
-      pos.setPitch(pos.getPitch() - (float) this.relativeOffsetPitch);
-      pos.setYaw(pos.getYaw() + (float) this.relativeOffsetYaw);
-      if(this.relativeOffsetDistance != 0) {
-        pos.add(pos.getDirection().multiply(this.relativeOffsetDistance));
+    @Override
+    public void updateIfNecessary(final @NonNull Player player, final @NonNull Location playerPos) {
+      if(this.relative()) {
+        // small movements are skipped, since a relative entity only needs to stay roughly in place
+        ViewerPosition last = this.lastPositions.get(player);
+        if(last == null) {
+          last = new ViewerPosition(playerPos);
+          this.lastPositions.put(player, last);
+        } else {
+          final long wait = last.update(playerPos);
+          if(wait == ViewerPosition.MOVE_SKIPPED) return;
+          if(wait != ViewerPosition.MOVE_READY) {
+            // moved too soon after the last update, so the entity is moved once the interval has passed
+            if(last.retryLater()) {
+              final ViewerPosition retrying = last;
+              this.tracker.schedule(() -> {
+                retrying.retried();
+                if(this.watching(player)) {
+                  this.updateIfNecessary(player, player.getLocation());
+                }
+              }, wait);
+            }
+            return;
+          }
+        }
+
+        last.relative(this.relativeOffsetDistance, this.relativeOffsetPitch, this.relativeOffsetYaw);
+        CraftBukkitHandlers.sendPacket(player, this.createLocationUpdatePacket(last));
       }
-      return pos;
     }
 
-    @Override
-    public void updateIfNecessary(final @NonNull Player player, final @NonNull Location playerPos) {
-      if(this.relative() && this.watching.contains(player)) {
-        final Location pos = this.makeRelative(playerPos);
-        this.location0(pos);
-        CraftBukkitHandlers.sendPacket(player, this.createLocationUpdatePacket());
+    /**
+     * The position of a viewer when a relative entity was last moved for them.
+     *
+     * <p>The entity's position relative to the viewer is computed into this same state, so moving does not allocate.</p>
+     */
+    static final class ViewerPosition {
+      static final long MOVE_READY = 0;
+      static final long MOVE_SKIPPED = -1; // too small a change to move the entity for
+      private static final double TELEPORT_DISTANCE_SQUARED = 8 * 8;
+      private static final double MINIMUM_TURN = Knobs.phantomEntityMinimumTurn();
+      private static final double MINIMUM_MOVE = Knobs.phantomEntityMinimumMove();
+      private static final long MINIMUM_UPDATE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(Knobs.phantomEntityUpdateInterval());
+
+      private double x;
+      private double y;
+      private double z;
+      private float pitch;
+      private float yaw;
+      private long time;
+      private boolean retrying;
+      double targetX;
+      double targetY;
+      double targetZ;
+      float targetPitch;
+      float targetYaw;
+
+      ViewerPosition(final @NonNull Location position) {
+        this.set(position, System.nanoTime());
+      }
+
+      private void set(final @NonNull Location position, final long time) {
+        this.x = position.getX();
+        this.y = position.getY();
+        this.z = position.getZ();
+        this.pitch = position.getPitch();
+        this.yaw = position.getYaw();
+        this.time = time;
+      }
+
+      /**
+       * Record a new position, if it is far enough from the last one and enough time has passed.
+       *
+       * @param position the new position
+       * @return {@link #MOVE_READY} if the position was recorded and the entity should be moved,
+       *     {@link #MOVE_SKIPPED} if it is too close to the last one, or the nanoseconds until it may be moved
+       */
+      synchronized long update(final @NonNull Location position) {
+        final long now = System.nanoTime();
+        final double dx = position.getX() - this.x;
+        final double dy = position.getY() - this.y;
+        final double dz = position.getZ() - this.z;
+        final double distanceSquared = dx * dx + dy * dy + dz * dz;
+        final boolean moved = distanceSquared >= MINIMUM_MOVE * MINIMUM_MOVE;
+        final boolean turned = Math.abs(position.getPitch() - this.pitch) >= MINIMUM_TURN
+          || Math.abs(wrapDegrees(position.getYaw() - this.yaw)) >= MINIMUM_TURN;
+        if(!moved && !turned) return MOVE_SKIPPED;
+
+        final long wait = MINIMUM_UPDATE_INTERVAL - (now - this.time);
+        // a jump this large is a teleport, so the entity would be left far out of place
+        if(wait > 0 && distanceSquared < TELEPORT_DISTANCE_SQUARED) return wait;
+
+        this.set(position, now);
+        return MOVE_READY;
+      }
+
+      /**
+       * Mark that a delayed update has been scheduled.
+       *
+       * @return if no delayed update was already scheduled
+       */
+      synchronized boolean retryLater() {
+        if(this.retrying) return false;
+        this.retrying = true;
+        return true;
+      }
+
+      /**
+       * Mark that the delayed update is running.
+       */
+      synchronized void retried() {
+        this.retrying = false;
+      }
+
+      /**
+       * Compute the position of an entity offset from this viewer's position.
+       *
+       * @param distance the distance from the viewer, along their offset direction
+       * @param pitchOffset the pitch offset, subtracted from the viewer's pitch
+       * @param yawOffset the yaw offset, added to the viewer's yaw
+       */
+      synchronized void relative(final double distance, final double pitchOffset, final double yawOffset) {
+        this.targetPitch = this.pitch - (float) pitchOffset;
+        this.targetYaw = this.yaw + (float) yawOffset;
+        this.targetX = this.x;
+        this.targetY = this.y;
+        this.targetZ = this.z;
+        if(distance != 0) {
+          // same as Location.getDirection()
+          final double pitchRadians = Math.toRadians(this.targetPitch);
+          final double yawRadians = Math.toRadians(this.targetYaw);
+          final double horizontal = Math.cos(pitchRadians);
+          this.targetX -= horizontal * Math.sin(yawRadians) * distance;
+          this.targetY -= Math.sin(pitchRadians) * distance;
+          this.targetZ += horizontal * Math.cos(yawRadians) * distance;
+        }
+      }
+
+      private static float wrapDegrees(final float degrees) {
+        float wrapped = degrees % 360f;
+        if(wrapped >= 180f) wrapped -= 360f;
+        if(wrapped < -180f) wrapped += 360f;
+        return wrapped;
       }
     }
   }
@@ -451,6 +740,11 @@ interface PhantomEntity<T extends Entity> {
       return null;
     }
 
+    @Override
+    public @Nullable Object owner() {
+      return null;
+    }
+
     @Override
     public boolean relative() {
       return false;
@@ -476,6 +770,11 @@ interface PhantomEntity<T extends Entity> {
       return false;
     }
 
+    @Override
+    public int watchers() {
+      return 0;
+    }
+
     @Override
     public PhantomEntity<T> invisible(final boolean invisible) {
       return this;
@@ -23,10 +23,15 @@
  */
 package net.kyori.adventure.platform.bukkit;
 
+import java.util.Deque;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import net.kyori.adventure.platform.common.Knobs;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
@@ -38,6 +43,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.plugin.Plugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -47,12 +53,19 @@ import static java.util.Objects.requireNonNull;
  * A tracker for phantom entities that handles sending updates as appropriate.
  */
 class PhantomEntityTracker implements Listener {
+  private static final int MAXIMUM_POOL_SIZE = Knobs.phantomEntityPoolSize();
+
   private final Plugin owner;
   private final Set<PhantomEntity<?>> trackedEntities = ConcurrentHashMap.newKeySet();
+  private final Map<Player, Set<PhantomEntity<?>>> watchedEntities = new ConcurrentHashMap<>();
   private volatile boolean open = true;
   private final AtomicInteger relativeEntities = new AtomicInteger();
   private final AtomicBoolean isListeningToMove = new AtomicBoolean();
   private final Listener moveListener = new Listener() {};
+  private final Map<Class<?>, Deque<PhantomEntity.Impl<?>>> pool = new ConcurrentHashMap<>(); // by implementation class
+  private final AtomicInteger poolSize = new AtomicInteger();
+  private final AtomicLong poolHits = new AtomicLong();
+  private final AtomicLong poolMisses = new AtomicLong();
 
   PhantomEntityTracker(final Plugin owner) {
     this.owner = requireNonNull(owner, "owner");
@@ -76,12 +89,137 @@ class PhantomEntityTracker implements Listener {
     return new PhantomEntity.NoOp<>();
   }
 
+  /**
+   * Take a phantom entity from the pool, or create a new one if none are available.
+   *
+   * <p>Entities are created in the default world. Phantom entities are only ever seen through packets,
+   * which carry no world, so pooled entities are shared between worlds.</p>
+   *
+   * <p>Entities are returned to the pool with {@link #release(PhantomEntity)}.</p>
+   *
+   * @param owner what the entity is borrowed for, until it is released
+   * @param entity the entity type
+   * @param <T> the entity type
+   * @return a phantom entity, with no viewers and no relative offset
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Entity> PhantomEntity<T> borrow(final @NonNull Object owner, final @NonNull Class<T> entity) {
+    for(final Map.Entry<Class<?>, Deque<PhantomEntity.Impl<?>>> pooled : this.pool.entrySet()) {
+      if(!entity.isAssignableFrom(pooled.getKey())) continue;
+      final PhantomEntity.Impl<?> reused = pooled.getValue().pollFirst();
+      if(reused != null) {
+        this.poolSize.decrementAndGet();
+        this.poolHits.incrementAndGet();
+        synchronized(reused) {
+          reused.owner(owner);
+        }
+        return (PhantomEntity<T>) reused;
+      }
+    }
+    this.poolMisses.incrementAndGet();
+    final PhantomEntity<T> created = this.create(entity);
+    if(created instanceof PhantomEntity.Impl<?>) {
+      ((PhantomEntity.Impl<?>) created).owner(owner);
+    }
+    return created;
+  }
+
+  /**
+   * Return a phantom entity to the pool, once it is no longer used.
+   *
+   * @param entity the entity
+   */
+  public void release(final @NonNull PhantomEntity<?> entity) {
+    entity.removeAll();
+    this.handleRemove(entity);
+    if(!this.open || !(entity instanceof PhantomEntity.Impl<?>)) return;
+
+    final Entity bukkit = entity.entity();
+    if(bukkit == null || bukkit.getWorld() == null) return;
+    if(this.poolSize.incrementAndGet() > MAXIMUM_POOL_SIZE) {
+      this.poolSize.decrementAndGet();
+      return;
+    }
+    final PhantomEntity.Impl<?> impl = (PhantomEntity.Impl<?>) entity;
+    synchronized(impl) { // wait out any change made by the previous owner
+      impl.reset();
+    }
+    this.pool.computeIfAbsent(bukkit.getClass(), t -> new ConcurrentLinkedDeque<>()).offerFirst(impl);
+  }
+
+  /**
+   * Get the number of phantom entities waiting in the pool.
+   *
+   * @return the pool size
+   */
+  int poolSize() {
+    return this.poolSize.get();
+  }
+
+  /**
+   * Get the number of times {@link #borrow(Object, Class)} reused a pooled entity.
+   *
+   * @return the pool hits
+   */
+  long poolHits() {
+    return this.poolHits.get();
+  }
+
+  /**
+   * Get the number of times {@link #borrow(Object, Class)} had to create a new entity.
+   *
+   * @return the pool misses
+   */
+  long poolMisses() {
+    return this.poolMisses.get();
+  }
+
+  /**
+   * Run a task on the server thread after a delay, unless this tracker has been closed.
+   *
+   * @param task the task
+   * @param delay the delay, in nanoseconds
+   */
+  void schedule(final @NonNull Runnable task, final long delay) {
+    if(!this.open) return;
+    this.owner.getServer().getScheduler().runTaskLater(this.owner, () -> {
+      if(this.open) task.run();
+    }, 1 + TimeUnit.NANOSECONDS.toMillis(delay) / 50);
+  }
+
   void onPlayerMove(final @NonNull PlayerMoveEvent event) {
-    for(final PhantomEntity<?> entity : this.trackedEntities) {
-      entity.updateIfNecessary(event.getPlayer(), event.getTo().clone());
+    final Set<PhantomEntity<?>> watched = this.watchedEntities.get(event.getPlayer());
+    if(watched == null) return;
+    for(final PhantomEntity<?> entity : watched) {
+      if(entity.relative()) {
+        entity.updateIfNecessary(event.getPlayer(), event.getTo());
+      }
     }
   }
 
+  /**
+   * Record that a player has started watching an entity.
+   *
+   * @param viewer the viewer
+   * @param entity the entity
+   */
+  void watch(final @NonNull Player viewer, final @NonNull PhantomEntity<?> entity) {
+    this.watchedEntities.computeIfAbsent(viewer, v -> ConcurrentHashMap.newKeySet()).add(entity);
+  }
+
+  /**
+   * Record that a player has stopped watching an entity.
+   *
+   * @param viewer the viewer
+   * @param entity the entity
+   */
+  void unwatch(final @NonNull Player viewer, final @NonNull PhantomEntity<?> entity) {
+    this.watchedEntities.computeIfPresent(viewer, (v, watched) -> {
+      watched.remove(entity);
+      return watched.isEmpty() ? null : watched;
+    });
+  }
+
   @EventHandler
   public void onPlayerChangeWorld(final @NonNull PlayerChangedWorldEvent event) {
     this.respawnEntities(event.getPlayer());
@@ -93,13 +231,26 @@ class PhantomEntityTracker implements Listener {
     this.owner.getServer().getScheduler().scheduleSyncDelayedTask(this.owner, () -> this.respawnEntities(event.getPlayer()), 1);
   }
 
+  @EventHandler
+  public void onWorldUnload(final @NonNull WorldUnloadEvent event) {
+    // pooled entities hold on to the world they were created in
+    for(final Deque<PhantomEntity.Impl<?>> pooled : this.pool.values()) {
+      for(final PhantomEntity.Impl<?> entity : pooled) {
+        if(event.getWorld().equals(entity.entity().getWorld()) && pooled.removeFirstOccurrence(entity)) {
+          this.poolSize.decrementAndGet();
+        }
+      }
+    }
+  }
+
   private void respawnEntities(final @NonNull Player target) {
-    for(final PhantomEntity<?> entity : this.trackedEntities) {
-      if(entity instanceof PhantomEntity.Impl<?> && entity.watching(target)) {
+    final Set<PhantomEntity<?>> watched = this.watchedEntities.get(target);
+    if(watched == null) return;
+    for(final PhantomEntity<?> entity : watched) {
+      if(entity instanceof PhantomEntity.Impl<?>) {
         ((PhantomEntity.Impl<?>) entity).sendSpawnPacket(target);
       }
     }
-
   }
 
   public void close() {
@@ -108,6 +259,9 @@ class PhantomEntityTracker implements Listener {
       entity.removeAll();
     }
     this.trackedEntities.clear();
+    this.watchedEntities.clear();
+    this.pool.clear();
+    this.poolSize.set(0);
   }
 
   void updateTrackingState(final PhantomEntity<?> entity, final boolean wasRelative) {
@@ -153,6 +307,8 @@ class PhantomEntityTracker implements Listener {
   }
 
   void handleRemove(final PhantomEntity<?> entity) {
-    this.trackedEntities.remove(entity);
+    if(this.trackedEntities.remove(entity) && entity.relative()) {
+      this.modifyRelative(false);
+    }
   }
 }
@@ -0,0 +1,159 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.bukkit;
+
+import io.netty.channel.Channel;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import net.kyori.adventure.platform.common.Knobs;
+import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.lang.invoke.MethodHandles.filterReturnValue;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Access to the Netty channels behind player connections.
+ *
+ * <p>Anything written directly to a channel skips the checks performed by {@code PlayerConnection#sendPacket},
+ * so callers are responsible for applying any that are relevant -- see {@link #chatVisible(Player)}.</p>
+ */
+final class PlayerChannels {
+  private static final @Nullable Class<?> CLASS_PLAYER_CONNECTION = Crafty.findNmsClass("PlayerConnection");
+  private static final @Nullable Class<?> CLASS_NETWORK_MANAGER = Crafty.findNmsClass("NetworkManager");
+  private static final @Nullable Class<?> CLASS_CHAT_PACKET = Crafty.findNmsClass("PacketPlayOutChat");
+  private static final @Nullable Class<?> CLASS_ENTITY_PLAYER = Crafty.findNmsClass("EntityPlayer");
+  private static final @Nullable Class<?> CLASS_CHAT_VISIBILITY = findChatVisibilityClass();
+  private static final @Nullable Object CHAT_VISIBILITY_FULL = Crafty.findEnum(CLASS_CHAT_VISIBILITY, "FULL", 0);
+
+  private static final @Nullable MethodHandle PLAYER_CONNECTION_GET_NETWORK_MANAGER; // (Object)Object
+  private static final @Nullable MethodHandle NETWORK_MANAGER_GET_CHANNEL; // (Object)Channel
+  private static final @Nullable MethodHandle PLAYER_GET_CHAT_VISIBILITY; // (Player)Object
+
+  static {
+    MethodHandle playerConnectionGetNetworkManager = null;
+    MethodHandle networkManagerGetChannel = null;
+    MethodHandle playerGetChatVisibility = null;
+
+    if(CLASS_PLAYER_CONNECTION != null && CLASS_NETWORK_MANAGER != null) {
+      try {
+        final Field networkManagerField = findField(CLASS_PLAYER_CONNECTION, CLASS_NETWORK_MANAGER);
+        final Field channelField = findField(CLASS_NETWORK_MANAGER, Channel.class);
+        if(networkManagerField != null && channelField != null) {
+          playerConnectionGetNetworkManager = Crafty.lookup().unreflectGetter(networkManagerField).asType(methodType(Object.class, Object.class));
+          networkManagerGetChannel = Crafty.lookup().unreflectGetter(channelField).asType(methodType(Channel.class, Object.class));
+        }
+
+        // Chat packets are filtered by the client's chat visibility when sent normally, so we must be able to check it ourselves
+        final MethodHandle craftPlayerGetHandle = Crafty.findMethod(Crafty.findCraftClass("entity.CraftPlayer"), "getHandle", CLASS_ENTITY_PLAYER);
+        final Field chatVisibilityField = CLASS_ENTITY_PLAYER == null || CLASS_CHAT_VISIBILITY == null ? null : findField(CLASS_ENTITY_PLAYER, CLASS_CHAT_VISIBILITY);
+        if(craftPlayerGetHandle != null && chatVisibilityField != null) {
+          playerGetChatVisibility = filterReturnValue(craftPlayerGetHandle, Crafty.lookup().unreflectGetter(chatVisibilityField))
+            .asType(methodType(Object.class, Player.class));
+        }
+      } catch(final IllegalAccessException | RuntimeException ex) {
+        Knobs.logError("finding player channel accessors", ex);
+      }
+    }
+
+    PLAYER_CONNECTION_GET_NETWORK_MANAGER = playerConnectionGetNetworkManager;
+    NETWORK_MANAGER_GET_CHANNEL = networkManagerGetChannel;
+    PLAYER_GET_CHAT_VISIBILITY = playerGetChatVisibility;
+  }
+
+  private PlayerChannels() {
+  }
+
+  private static @Nullable Class<?> findChatVisibilityClass() {
+    final Class<?> nested = Crafty.findNmsClass("EntityHuman$EnumChatVisibility"); // before 1.14
+    return nested != null ? nested : Crafty.findNmsClass("EnumChatVisibility");
+  }
+
+  private static @Nullable Field findField(final @NonNull Class<?> holder, final @NonNull Class<?> type) {
+    for(final Field field : holder.getDeclaredFields()) {
+      if(!Modifier.isStatic(field.getModifiers()) && field.getType().equals(type)) {
+        field.setAccessible(true);
+        return field;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get whether channels can be accessed.
+   *
+   * @return if available
+   */
+  static boolean isAvailable() {
+    return PLAYER_CONNECTION_GET_NETWORK_MANAGER != null && NETWORK_MANAGER_GET_CHANNEL != null && PLAYER_GET_CHAT_VISIBILITY != null;
+  }
+
+  /**
+   * Get the active channel for a player.
+   *
+   * @param player the player
+   * @return the player's channel, or null if they do not have an active one
+   */
+  static @Nullable Channel channel(final @NonNull Player player) {
+    try {
+      final Object connection = CraftBukkitHandlers.connection(player);
+      if(connection == null) return null;
+      final Object networkManager = (Object) PLAYER_CONNECTION_GET_NETWORK_MANAGER.invokeExact(connection);
+      if(networkManager == null) return null;
+      final Channel channel = (Channel) NETWORK_MANAGER_GET_CHANNEL.invokeExact(networkManager);
+      return channel != null && channel.isActive() ? channel : null;
+    } catch(final Throwable throwable) {
+      Knobs.logError("finding channel for {0}", throwable, player);
+      return null;
+    }
+  }
+
+  /**
+   * Get whether a packet is a chat packet, subject to {@link #chatVisible(Player) chat visibility}.
+   *
+   * @param packet the packet
+   * @return if the packet is a chat packet
+   */
+  static boolean isChat(final @NonNull Object packet) {
+    return CLASS_CHAT_PACKET != null && CLASS_CHAT_PACKET.isInstance(packet);
+  }
+
+  /**
+   * Get whether a player has chosen to see every chat message.
+   *
+   * @param player the player
+   * @return if the player's chat visibility is known to be {@code FULL}
+   */
+  static boolean chatVisible(final @NonNull Player player) {
+    if(PLAYER_GET_CHAT_VISIBILITY == null) return false;
+    try {
+      return (Object) PLAYER_GET_CHAT_VISIBILITY.invokeExact(player) == CHAT_VISIBILITY_FULL;
+    } catch(final Throwable throwable) {
+      Knobs.logError("getting chat visibility for {0}", throwable, player);
+      return false;
+    }
+  }
+}
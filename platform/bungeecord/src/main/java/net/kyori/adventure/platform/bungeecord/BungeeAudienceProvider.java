@@ -28,10 +28,12 @@ import java.lang.reflect.Field;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.platform.common.AbstractAudienceProvider;
 import net.kyori.adventure.platform.common.JDKLogHandler;
 import net.kyori.adventure.platform.common.Knobs;
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.bungeecord.BungeeCordComponentSerializer;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.md_5.bungee.api.CommandSender;
@@ -41,8 +43,11 @@ import net.md_5.bungee.api.event.PlayerDisconnectEvent;
 import net.md_5.bungee.api.event.PostLoginEvent;
 import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.api.plugin.Plugin;
+import net.md_5.bungee.api.scheduler.ScheduledTask;
 import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.protocol.packet.Chat;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import static java.util.Objects.requireNonNull;
 
@@ -66,6 +71,19 @@ final class BungeeAudienceProvider extends AbstractAudienceProvider implements B
 
   static final int PROTCOOL_1_9 = 107;
   static final int PROTOCOL_1_16 = 735;
+  // Components are serialized once for each group of clients that need the same JSON
+  static final int BUCKET_LEGACY = 0; // colors downsampled, before 1.16
+  static final int BUCKET_MODERN = 1;
+  static final int BUCKETS = 2;
+  private static final GsonComponentSerializer[] GSON_SERIALIZERS = {
+    GsonComponentSerializer.builder().downsampleColors().emitLegacyHoverEvent().build(), // same as BungeeCordComponentSerializer.legacy()
+    GsonComponentSerializer.gson()
+  };
+  // Chat packet positions
+  static final byte POSITION_CHAT = 0;
+  static final byte POSITION_SYSTEM = 1;
+  private static final int POSITIONS = 2;
+  private static final long MILLIS_PER_TICK = 50;
 
   private static final Map<String, BungeeAudienceProvider> INSTANCES = new ConcurrentHashMap<>();
 
@@ -89,6 +107,12 @@ final class BungeeAudienceProvider extends AbstractAudienceProvider implements B
   private final Plugin plugin;
   private final BungeeBossBarListener bossBars = new BungeeBossBarListener();
   private final Listener listener;
+  private final BungeePackets.Shared<byte[]> sounds = new BungeePackets.Shared<>(BungeePackets.SOUND_BUCKETS);
+  private final BungeePackets.Shared<byte[]> soundStops = new BungeePackets.Shared<>(BungeePackets.STOP_SOUND_BUCKETS);
+  private final BungeePackets.Shared<net.md_5.bungee.api.Title> titles = new BungeePackets.Shared<>(BUCKETS);
+  private final BungeePackets.Shared<String> json = new BungeePackets.Shared<>(BUCKETS);
+  private final BungeePackets.Shared<Chat> messages = new BungeePackets.Shared<>(BUCKETS * POSITIONS);
+  private @Nullable ScheduledTask bossBarTask;
 
   BungeeAudienceProvider(final String key, final Plugin plugin) {
     this.key = requireNonNull(key, "key");
@@ -102,12 +126,77 @@ final class BungeeAudienceProvider extends AbstractAudienceProvider implements B
     } catch(final Exception ex) {
       Knobs.logError("registering events with plugin", ex);
     }
+
+    // Send boss bar changes once per interval, rather than as each one is made
+    final int bossBarInterval = Knobs.bossBarUpdateInterval();
+    if(bossBarInterval > 0) {
+      final long period = bossBarInterval * MILLIS_PER_TICK;
+      this.bossBars.coalesce(true);
+      this.bossBarTask = this.plugin.getProxy().getScheduler().schedule(this.plugin, this.bossBars::flush, period, period, TimeUnit.MILLISECONDS);
+    }
+    this.bossBars.scheduler((task, delay) -> this.plugin.getProxy().getScheduler().schedule(this.plugin, task, delay, TimeUnit.NANOSECONDS));
+
     this.add(new BungeeSenderAudience(this.plugin.getProxy().getConsole()));
     for(final ProxiedPlayer player : this.plugin.getProxy().getPlayers()) {
       this.add(new BungeePlayerAudience(this, player));
     }
   }
 
+  /**
+   * Get the serialization bucket for a player.
+   *
+   * @param player the player
+   * @return {@link #BUCKET_MODERN} or {@link #BUCKET_LEGACY}
+   */
+  static int bucket(final @NonNull ProxiedPlayer player) {
+    return player.getPendingConnection().getVersion() >= PROTOCOL_1_16 ? BUCKET_MODERN : BUCKET_LEGACY;
+  }
+
+  /**
+   * Get the serializer producing JSON for a bucket of clients.
+   *
+   * @param bucket the bucket
+   * @return the serializer
+   */
+  static @NonNull GsonComponentSerializer gsonSerializer(final int bucket) {
+    return GSON_SERIALIZERS[bucket];
+  }
+
+  /**
+   * Get a chat packet for a message, shared with every player in the same bucket.
+   *
+   * @param bucket the bucket
+   * @param position the chat position
+   * @param message the message
+   * @return the packet
+   */
+  @NonNull Chat message(final int bucket, final byte position, final @NonNull Component message) {
+    return this.messages.get(bucket * POSITIONS + position, message, () -> new Chat(this.json(bucket, message), position));
+  }
+
+  /**
+   * Get the json for a component, shared with every player in the same bucket.
+   *
+   * @param bucket the bucket
+   * @param component the component
+   * @return the json
+   */
+  @NonNull String json(final int bucket, final @NonNull Component component) {
+    return this.json.get(bucket, component, () -> gsonSerializer(bucket).serialize(component));
+  }
+
+  BungeePackets.Shared<byte[]> sounds() {
+    return this.sounds;
+  }
+
+  BungeePackets.Shared<byte[]> soundStops() {
+    return this.soundStops;
+  }
+
+  BungeePackets.Shared<net.md_5.bungee.api.Title> titles() {
+    return this.titles;
+  }
+
   ProxyServer proxy() {
     return this.plugin.getProxy();
   }
@@ -152,13 +241,27 @@ final class BungeeAudienceProvider extends AbstractAudienceProvider implements B
 
   @Override
   public @NonNull GsonComponentSerializer gsonSerializer() {
-    return GsonComponentSerializer.gson(); // TODO: maybe per-player support?
+    return GsonComponentSerializer.gson(); // clients can be on any version, see gsonSerializer(ProxiedPlayer)
+  }
+
+  @Override
+  public @NonNull GsonComponentSerializer gsonSerializer(final @NonNull ProxiedPlayer player) {
+    return gsonSerializer(bucket(requireNonNull(player, "player")));
+  }
+
+  @Override
+  public @NonNull String serialize(final @NonNull ProxiedPlayer player, final @NonNull Component component) {
+    return this.json(bucket(requireNonNull(player, "player")), requireNonNull(component, "component"));
   }
 
   @Override
   public void close() {
     INSTANCES.remove(this.key);
     this.plugin.getProxy().getPluginManager().unregisterListener(this.listener);
+    if(this.bossBarTask != null) {
+      this.bossBarTask.cancel();
+      this.bossBarTask = null;
+    }
     this.bossBars.hideAll();
     super.close();
   }
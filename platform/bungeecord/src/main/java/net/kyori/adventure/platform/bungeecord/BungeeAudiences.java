@@ -25,6 +25,8 @@ package net.kyori.adventure.platform.bungeecord;
 
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.platform.AudienceProvider;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Plugin;
@@ -61,4 +63,25 @@ public interface BungeeAudiences extends AudienceProvider {
    * @return an audience
    */
   @NonNull Audience audience(final @NonNull CommandSender sender);
+
+  /**
+   * Gets a json component serializer using the format most appropriate for a player's client.
+   *
+   * @param player a player
+   * @return the serializer
+   */
+  @NonNull GsonComponentSerializer gsonSerializer(final @NonNull ProxiedPlayer player);
+
+  /**
+   * Serializes a component to json in the format most appropriate for a player's client.
+   *
+   * <p>The json is shared with every player whose client uses the same format, including for messages sent
+   * through this provider's audiences. Serializing one component for many players only serializes it once
+   * for each format.</p>
+   *
+   * @param player a player
+   * @param component the component
+   * @return the json
+   */
+  @NonNull String serialize(final @NonNull ProxiedPlayer player, final @NonNull Component component);
 }
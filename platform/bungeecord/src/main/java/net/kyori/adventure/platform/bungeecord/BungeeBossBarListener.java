@@ -30,8 +30,6 @@ import java.util.function.Consumer;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.platform.common.AbstractBossBarListener;
 import net.kyori.adventure.platform.common.Handler;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -44,34 +42,47 @@ final class BungeeBossBarListener extends AbstractBossBarListener<ProxiedPlayer,
   }
 
   @Override
-  public void bossBarNameChanged(final @NonNull BossBar bar, final @NonNull Component oldName, final @NonNull Component newName) {
-    this.handle(bar, newName, (val, inst) -> inst.sendToSubscribers(ACTION_NAME, pkt -> pkt.setTitle(GsonComponentSerializer.gson().serialize(val)))); // TODO: based on viewer
-  }
-
-  @Override
-  public void bossBarPercentChanged(final @NonNull BossBar bar, final float oldPercent, final float newPercent) {
-    this.handle(bar, newPercent, (val, inst) -> inst.sendToSubscribers(ACTION_PERCENT, pkt -> pkt.setHealth(val)));
-  }
-
-  @Override
-  public void bossBarColorChanged(final @NonNull BossBar bar, final BossBar.@NonNull Color oldColor, final BossBar.@NonNull Color newColor) {
-    this.handle(bar, newColor, (val, inst) -> inst.sendToSubscribers(ACTION_STYLE, pkt -> {
-      pkt.setColor(color(val));
-      pkt.setDivision(overlay(inst.adventure.overlay()));
-    }));
-  }
-
-  @Override
-  public void bossBarOverlayChanged(final @NonNull BossBar bar, final BossBar.@NonNull Overlay oldOverlay, final BossBar.@NonNull Overlay newOverlay) {
-    this.handle(bar, newOverlay, (val, inst) -> inst.sendToSubscribers(ACTION_STYLE, pkt -> {
-      pkt.setColor(color(inst.adventure.color()));
-      pkt.setDivision(overlay(val));
-    }));
-  }
-
-  @Override
-  public void bossBarFlagsChanged(final @NonNull BossBar bar, final @NonNull Set<BossBar.Flag> oldFlags, final @NonNull Set<BossBar.Flag> newFlags) {
-    this.handle(bar, newFlags, (val, inst) -> inst.sendToSubscribers(ACTION_STYLE, pkt -> pkt.setFlags(BossBars.bitmaskFlags(val))));
+  protected void update(final @NonNull BossBar adventure, final @NonNull Instance bar, final int changes) {
+    if((changes & CHANGE_NAME) != 0) {
+      bar.nameChanged();
+    }
+    if(replaceOnUpdate(changes)) {
+      // one packet replacing the whole bar, rather than one for each property
+      final net.md_5.bungee.protocol.packet.BossBar[] packets = new net.md_5.bungee.protocol.packet.BossBar[BungeeAudienceProvider.BUCKETS];
+      for(final ProxiedPlayer player : bar.subscribers) {
+        final int bucket = BungeeAudienceProvider.bucket(player);
+        net.md_5.bungee.protocol.packet.BossBar packet = packets[bucket];
+        if(packet == null) {
+          packet = packets[bucket] = bar.newCreatePacket(bucket);
+        }
+        player.unsafe().sendPacket(packet);
+      }
+      return;
+    }
+    if((changes & CHANGE_NAME) != 0) {
+      final net.md_5.bungee.protocol.packet.BossBar[] packets = new net.md_5.bungee.protocol.packet.BossBar[BungeeAudienceProvider.BUCKETS];
+      for(final ProxiedPlayer player : bar.subscribers) {
+        final int bucket = BungeeAudienceProvider.bucket(player);
+        net.md_5.bungee.protocol.packet.BossBar packet = packets[bucket];
+        if(packet == null) {
+          packet = packets[bucket] = bar.newPacket(ACTION_NAME);
+          packet.setTitle(bar.title(bucket));
+        }
+        player.unsafe().sendPacket(packet);
+      }
+    }
+    if((changes & CHANGE_PERCENT) != 0) {
+      bar.sendToSubscribers(ACTION_PERCENT, pkt -> pkt.setHealth(adventure.percent()));
+    }
+    if((changes & (CHANGE_COLOR | CHANGE_OVERLAY)) != 0) {
+      bar.sendToSubscribers(ACTION_STYLE, pkt -> {
+        pkt.setColor(color(adventure.color()));
+        pkt.setDivision(overlay(adventure.overlay()));
+      });
+    }
+    if((changes & CHANGE_FLAGS) != 0) {
+      bar.sendToSubscribers(ACTION_FLAGS, pkt -> pkt.setFlags(BossBars.bitmaskFlags(adventure.flags())));
+    }
   }
 
   @Override
@@ -89,7 +100,7 @@ final class BungeeBossBarListener extends AbstractBossBarListener<ProxiedPlayer,
   protected void show(final @NonNull ProxiedPlayer viewer, final @NonNull Instance bar) {
     if(canSeeBossBars(viewer)) {
       if(bar.subscribers.add(viewer)) {
-        viewer.unsafe().sendPacket(bar.newCreatePacket());
+        viewer.unsafe().sendPacket(bar.newCreatePacket(BungeeAudienceProvider.bucket(viewer)));
       }
     }
   }
@@ -108,6 +119,11 @@ final class BungeeBossBarListener extends AbstractBossBarListener<ProxiedPlayer,
     return bar.subscribers.isEmpty();
   }
 
+  @Override
+  protected int viewers(final @NonNull Instance bar) {
+    return bar.subscribers.size();
+  }
+
   @Override
   protected void hideFromAll(final @NonNull Instance bar) {
     bar.sendToSubscribers(bar.newPacket(ACTION_REMOVE));
@@ -118,14 +134,37 @@ final class BungeeBossBarListener extends AbstractBossBarListener<ProxiedPlayer,
     private final UUID id = UUID.randomUUID();
     private final BossBar adventure;
     final Set<ProxiedPlayer> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile String[] titles = new String[BungeeAudienceProvider.BUCKETS];
 
     Instance(final BossBar adventure) {
       this.adventure = adventure;
     }
 
-    net.md_5.bungee.protocol.packet.@NonNull BossBar newCreatePacket() {
+    /**
+     * Forget any titles serialized for the previous name.
+     */
+    void nameChanged() {
+      this.titles = new String[BungeeAudienceProvider.BUCKETS];
+    }
+
+    /**
+     * Get the title JSON for a bucket of clients, serializing it if necessary.
+     *
+     * @param bucket the bucket
+     * @return the title
+     */
+    @NonNull String title(final int bucket) {
+      final String[] titles = this.titles;
+      String title = titles[bucket];
+      if(title == null) {
+        titles[bucket] = title = BungeeAudienceProvider.gsonSerializer(bucket).serialize(this.adventure.name());
+      }
+      return title;
+    }
+
+    net.md_5.bungee.protocol.packet.@NonNull BossBar newCreatePacket(final int bucket) {
       final net.md_5.bungee.protocol.packet.BossBar packet = this.newPacket(Handler.BossBars.ACTION_ADD);
-      packet.setTitle(GsonComponentSerializer.gson().serialize(this.adventure.name())); // TODO: Based on viewer protocol
+      packet.setTitle(this.title(bucket));
       packet.setHealth(this.adventure.percent());
       packet.setColor(color(this.adventure.color()));
       packet.setDivision(overlay(this.adventure.overlay()));
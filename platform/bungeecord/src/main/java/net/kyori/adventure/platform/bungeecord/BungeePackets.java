@@ -0,0 +1,307 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.bungeecord;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.platform.common.Knobs;
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.sound.SoundStop;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.packet.PluginMessage;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Encoders for packets that BungeeCord has no packet classes for.
+ *
+ * <p>Packet ids and layouts change between protocol versions, so each packet has a table of formats,
+ * ordered by the first protocol version using each one. Players whose protocol versions share a format
+ * are in the same bucket, and a packet only has to be encoded once for each bucket.</p>
+ */
+final class BungeePackets {
+  static final int UNSUPPORTED = -1;
+
+  private static final int PROTOCOL_1_9 = 107;
+  private static final int PROTOCOL_1_9_4 = 110;
+  private static final int PROTOCOL_1_10 = 210;
+  private static final int PROTOCOL_1_13 = 393;
+  private static final int PROTOCOL_1_14 = 477;
+  private static final int PROTOCOL_1_15 = 573;
+  private static final int PROTOCOL_1_16 = 735;
+  private static final int PROTOCOL_1_16_2 = 751;
+  private static final int PROTOCOL_MAXIMUM = 754; // 1.16.4, the newest version these tables are known to be right for
+
+  // Named sound effect
+  // 1.9: (name: String, category: varint, x: int, y: int, z: int, volume: float, pitch: ubyte), with positions in 1/8 blocks and pitch * 63
+  // 1.10: pitch becomes a float
+  // 1.13: name becomes a namespaced identifier
+  // 1.8 clients are not sent sounds, their sound names are from before the 1.9 rename
+  private static final int[] SOUND_PROTOCOLS = {PROTOCOL_1_9, PROTOCOL_1_10, PROTOCOL_1_13, PROTOCOL_1_14, PROTOCOL_1_15, PROTOCOL_1_16, PROTOCOL_1_16_2};
+  private static final int[] SOUND_IDS = {0x19, 0x19, 0x1A, 0x19, 0x1A, 0x19, 0x18};
+
+  // Stop sound
+  // 1.9.4: sent as an MC|StopSound plugin message, (category: String, name: String), where an empty string matches anything
+  // 1.13: (flags: byte, category: varint if flags & 1, name: identifier if flags & 2)
+  private static final String STOP_SOUND_CHANNEL = "MC|StopSound";
+  private static final int[] STOP_SOUND_PROTOCOLS = {PROTOCOL_1_9_4, PROTOCOL_1_13, PROTOCOL_1_14, PROTOCOL_1_15, PROTOCOL_1_16};
+  private static final int[] STOP_SOUND_IDS = {UNSUPPORTED /* plugin message */, 0x4C, 0x52, 0x53, 0x52};
+  private static final int STOP_SOUND_FLAG_SOURCE = 1;
+  private static final int STOP_SOUND_FLAG_NAME = 1 << 1;
+
+  static final int SOUND_BUCKETS = SOUND_PROTOCOLS.length;
+  static final int STOP_SOUND_BUCKETS = STOP_SOUND_PROTOCOLS.length;
+
+  private static final @Nullable Class<?> CLASS_USER_CONNECTION;
+  private static final @Nullable MethodHandle USER_CONNECTION_GET_CHANNEL; // (ProxiedPlayer)Object
+  private static final @Nullable MethodHandle CHANNEL_WRAPPER_WRITE; // (Object, Object)void
+  private static final @Nullable MethodHandle USER_CONNECTION_GET_PENDING_CONNECTS; // (ProxiedPlayer)Collection
+
+  static {
+    Class<?> userConnection = null;
+    MethodHandle getChannel = null;
+    MethodHandle write = null;
+    MethodHandle getPendingConnects = null;
+    try {
+      userConnection = Class.forName("net.md_5.bungee.UserConnection");
+      final Class<?> channelWrapper = Class.forName("net.md_5.bungee.netty.ChannelWrapper");
+      getChannel = MethodHandles.publicLookup().findVirtual(userConnection, "getCh", methodType(channelWrapper))
+        .asType(methodType(Object.class, ProxiedPlayer.class));
+      write = MethodHandles.publicLookup().findVirtual(channelWrapper, "write", methodType(void.class, Object.class))
+        .asType(methodType(void.class, Object.class, Object.class));
+      try {
+        getPendingConnects = MethodHandles.publicLookup().findVirtual(userConnection, "getPendingConnects", methodType(Collection.class))
+          .asType(methodType(Collection.class, ProxiedPlayer.class));
+      } catch(final NoSuchMethodException ignored) {
+        // server switches cannot be detected, players are only skipped while logging in
+      }
+    } catch(final ClassNotFoundException | NoSuchMethodException | IllegalAccessException ex) {
+      Knobs.logError("finding BungeeCord player connections", ex);
+    }
+    CLASS_USER_CONNECTION = userConnection;
+    USER_CONNECTION_GET_CHANNEL = getChannel;
+    CHANNEL_WRAPPER_WRITE = write;
+    USER_CONNECTION_GET_PENDING_CONNECTS = getPendingConnects;
+  }
+
+  private BungeePackets() {
+  }
+
+  private static int bucket(final int[] protocols, final int protocol) {
+    if(protocol > PROTOCOL_MAXIMUM) return UNSUPPORTED;
+    for(int i = protocols.length - 1; i >= 0; i--) {
+      if(protocol >= protocols[i]) return i;
+    }
+    return UNSUPPORTED;
+  }
+
+  /**
+   * Get the named sound packet format used by a protocol version.
+   *
+   * @param protocol the protocol version
+   * @return the bucket, or {@link #UNSUPPORTED}
+   */
+  static int soundBucket(final int protocol) {
+    return CHANNEL_WRAPPER_WRITE == null ? UNSUPPORTED : bucket(SOUND_PROTOCOLS, protocol);
+  }
+
+  /**
+   * Get the stop sound format used by a protocol version.
+   *
+   * @param protocol the protocol version
+   * @return the bucket, or {@link #UNSUPPORTED}
+   */
+  static int stopSoundBucket(final int protocol) {
+    final int bucket = bucket(STOP_SOUND_PROTOCOLS, protocol);
+    if(bucket != UNSUPPORTED && STOP_SOUND_IDS[bucket] != UNSUPPORTED && CHANNEL_WRAPPER_WRITE == null) return UNSUPPORTED;
+    return bucket;
+  }
+
+  /**
+   * Encode a named sound packet.
+   *
+   * @param bucket the format, from {@link #soundBucket(int)}
+   * @param sound the sound
+   * @param x x coordinate
+   * @param y y coordinate
+   * @param z z coordinate
+   * @return the packet id and contents
+   */
+  static byte @NonNull [] sound(final int bucket, final @NonNull Sound sound, final double x, final double y, final double z) {
+    final int protocol = SOUND_PROTOCOLS[bucket];
+    final ByteBuf buf = Unpooled.buffer();
+    DefinedPacket.writeVarInt(SOUND_IDS[bucket], buf);
+    DefinedPacket.writeString(protocol >= PROTOCOL_1_13 ? sound.name().asString() : sound.name().value(), buf);
+    DefinedPacket.writeVarInt(sound.source().ordinal(), buf);
+    buf.writeInt((int) (x * 8));
+    buf.writeInt((int) (y * 8));
+    buf.writeInt((int) (z * 8));
+    buf.writeFloat(sound.volume());
+    if(protocol >= PROTOCOL_1_10) {
+      buf.writeFloat(sound.pitch());
+    } else {
+      buf.writeByte(Math.max(0, Math.min(255, (int) (sound.pitch() * 63f))));
+    }
+    return bytes(buf);
+  }
+
+  /**
+   * Encode a stop sound packet, or the contents of its plugin message for older clients.
+   *
+   * @param bucket the format, from {@link #stopSoundBucket(int)}
+   * @param stop the sounds to stop
+   * @return the packet id and contents, or the plugin message data
+   */
+  static byte @NonNull [] stopSound(final int bucket, final @NonNull SoundStop stop) {
+    final Sound.Source source = stop.source();
+    final Key sound = stop.sound();
+    final ByteBuf buf = Unpooled.buffer();
+    if(STOP_SOUND_IDS[bucket] == UNSUPPORTED) {
+      DefinedPacket.writeString(source == null ? "" : Sound.Source.NAMES.key(source), buf);
+      DefinedPacket.writeString(sound == null ? "" : sound.asString(), buf);
+    } else {
+      DefinedPacket.writeVarInt(STOP_SOUND_IDS[bucket], buf);
+      buf.writeByte((source == null ? 0 : STOP_SOUND_FLAG_SOURCE) | (sound == null ? 0 : STOP_SOUND_FLAG_NAME));
+      if(source != null) {
+        DefinedPacket.writeVarInt(source.ordinal(), buf);
+      }
+      if(sound != null) {
+        DefinedPacket.writeString(sound.asString(), buf);
+      }
+    }
+    return bytes(buf);
+  }
+
+  /**
+   * Send an encoded stop sound to a player.
+   *
+   * @param player the player
+   * @param bucket the format the stop sound was encoded with
+   * @param encoded the encoded stop sound
+   */
+  static void sendStopSound(final @NonNull ProxiedPlayer player, final int bucket, final byte @NonNull [] encoded) {
+    if(STOP_SOUND_IDS[bucket] == UNSUPPORTED) {
+      player.unsafe().sendPacket(new PluginMessage(STOP_SOUND_CHANNEL, encoded, false));
+    } else {
+      send(player, encoded);
+    }
+  }
+
+  /**
+   * Get whether a player is in game, and can be written packets directly.
+   *
+   * <p>Players still logging in are not connected to a server yet, and players switching servers may be sent
+   * packets from the new server at any time, so raw packets are only written outside of both.</p>
+   *
+   * @param player the player
+   * @return if packets can be written
+   */
+  static boolean playing(final @NonNull ProxiedPlayer player) {
+    if(player.getServer() == null) return false; // still logging in
+    if(USER_CONNECTION_GET_PENDING_CONNECTS == null || !CLASS_USER_CONNECTION.isInstance(player)) return true;
+    try {
+      return ((Collection<?>) USER_CONNECTION_GET_PENDING_CONNECTS.invokeExact(player)).isEmpty();
+    } catch(final Throwable throwable) {
+      Knobs.logError("checking for a server switch by {0}", throwable, player.getName());
+      return false;
+    }
+  }
+
+  /**
+   * Write an encoded packet straight to a player's connection.
+   *
+   * @param player the player
+   * @param packet the packet id and contents
+   */
+  static void send(final @NonNull ProxiedPlayer player, final byte @NonNull [] packet) {
+    if(CHANNEL_WRAPPER_WRITE == null || USER_CONNECTION_GET_CHANNEL == null || !CLASS_USER_CONNECTION.isInstance(player)) return;
+    try {
+      final Object channel = (Object) USER_CONNECTION_GET_CHANNEL.invokeExact(player);
+      CHANNEL_WRAPPER_WRITE.invokeExact(channel, (Object) Unpooled.wrappedBuffer(packet));
+    } catch(final Throwable throwable) {
+      Knobs.logError("sending packet to {0}", throwable, player.getName());
+    }
+  }
+
+  private static byte @NonNull [] bytes(final @NonNull ByteBuf buf) {
+    final byte[] bytes = new byte[buf.readableBytes()];
+    buf.readBytes(bytes);
+    return bytes;
+  }
+
+  /**
+   * The value most recently encoded in each bucket.
+   *
+   * <p>Forwarding audiences pass the same instance to every player, so remembering the last one
+   * lets those players share a single encoding in each bucket.</p>
+   *
+   * @param <V> the encoded type
+   */
+  static final class Shared<V> {
+    private final AtomicReferenceArray<Entry<V>> entries;
+
+    Shared(final int buckets) {
+      this.entries = new AtomicReferenceArray<>(buckets);
+    }
+
+    @NonNull V get(final int bucket, final @NonNull Object source, final @NonNull Supplier<V> encoder) {
+      return this.get(bucket, source, 0, 0, 0, encoder);
+    }
+
+    @NonNull V get(final int bucket, final @NonNull Object source, final double x, final double y, final double z, final @NonNull Supplier<V> encoder) {
+      final Entry<V> existing = this.entries.get(bucket);
+      if(existing != null && existing.source == source && existing.x == x && existing.y == y && existing.z == z) {
+        return existing.value;
+      }
+      final V value = encoder.get();
+      this.entries.set(bucket, new Entry<>(source, x, y, z, value));
+      return value;
+    }
+
+    private static final class Entry<V> {
+      final Object source;
+      final double x;
+      final double y;
+      final double z;
+      final V value;
+
+      Entry(final Object source, final double x, final double y, final double z, final V value) {
+        this.source = source;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.value = value;
+      }
+    }
+  }
+}
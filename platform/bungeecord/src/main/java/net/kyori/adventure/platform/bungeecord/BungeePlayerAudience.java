@@ -30,6 +30,8 @@ import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.platform.common.audience.AdventurePlayerAudience;
 import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.sound.SoundStop;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.serializer.bungeecord.BungeeCordComponentSerializer;
@@ -75,15 +77,10 @@ class BungeePlayerAudience extends BungeeSenderAudience implements AdventurePlay
 
   @Override
   public void sendMessage(final @NonNull Component message, final @NonNull MessageType type) {
-    this.player.sendMessage(this.messageType(type), this.serializer().serialize(requireNonNull(message, "message")));
-  }
-  
-  private ChatMessageType messageType(final @NonNull MessageType type) {
-    if(type == MessageType.CHAT) {
-      return ChatMessageType.CHAT;
-    } else {
-      return ChatMessageType.SYSTEM;
-    }
+    requireNonNull(message, "message");
+    // the packet is serialized once for each bucket, and shared by every player a message is forwarded to
+    final byte position = type == MessageType.CHAT ? BungeeAudienceProvider.POSITION_CHAT : BungeeAudienceProvider.POSITION_SYSTEM;
+    this.player.unsafe().sendPacket(this.platform.message(BungeeAudienceProvider.bucket(this.player), position, message));
   }
   
   @Override
@@ -101,35 +98,32 @@ class BungeePlayerAudience extends BungeeSenderAudience implements AdventurePlay
     this.player.sendMessage(ChatMessageType.ACTION_BAR, this.serializer().serialize(message));
   }
 
-  /*@Override
+  @Override
   public void playSound(final @NonNull Sound sound) {
-    // TODO: Out of scope?
-    // Packet Named Sound Effect, 0x19
-    // 19w34a (pre of 1.15) (proto 345): 0x19 -> 0x1A
-    // 19w14b (pre of 1.15) (proto 345): 0x1A -> 0x19
-    // 17w46a (pre of 1.13) (proto 345): 0x19 -> 0x1A
-    // 17w45a (pre of 1.13) (proto 343): Uses identifiers
-    // 16w20a (pre of 1.11) (proto 201): Pitch is float, used to be ubyte
-    // 16w02a (pre of 1.9): Added category as varint enum
-    // 15w43a (pre of 1.9): ID 0x23 -> 0x19
+    // No-op, the proxy does not know where players are
   }
 
   @Override
   public void playSound(final @NonNull Sound sound, final double x, final double y, final double z) {
-    // TODO: See above
+    final int bucket = BungeePackets.soundBucket(this.player.getPendingConnection().getVersion());
+    if(bucket == BungeePackets.UNSUPPORTED || !BungeePackets.playing(this.player)) return;
+    BungeePackets.send(this.player, this.platform.sounds().get(bucket, sound, x, y, z, () -> BungeePackets.sound(bucket, sound, x, y, z)));
   }
 
   @Override
   public void stopSound(final @NonNull SoundStop stop) {
-    // TODO: Out of scope?
-    // 17w46a (pre of 1.13) (proto 345): pkt 0x4A
-    // starting 17w45a (pre of 1.13) (proto 343): pkt 0x49
-    // created: 1.9.3-pre2 (proto 110): custom data MC|StopSound
-    // format: string category | string name, either can be empty string meaning wildcard
-  }*/
+    final int bucket = BungeePackets.stopSoundBucket(this.player.getPendingConnection().getVersion());
+    if(bucket == BungeePackets.UNSUPPORTED || !BungeePackets.playing(this.player)) return;
+    BungeePackets.sendStopSound(this.player, bucket, this.platform.soundStops().get(bucket, stop, () -> BungeePackets.stopSound(bucket, stop)));
+  }
 
   @Override
   public void showTitle(final @NonNull Title title) {
+    final int bucket = BungeeAudienceProvider.bucket(this.player);
+    this.player.sendTitle(this.platform.titles().get(bucket, title, () -> this.bungee(title)));
+  }
+
+  private net.md_5.bungee.api.@NonNull Title bungee(final @NonNull Title title) {
     final net.md_5.bungee.api.Title bungee = this.platform.proxy().createTitle();
     if(title.title() != TextComponent.empty()) {
       bungee.title(this.serializer().serialize(title.title()));
@@ -144,8 +138,7 @@ class BungeePlayerAudience extends BungeeSenderAudience implements AdventurePlay
         .stay(ticks(times.stay()))
         .fadeOut(ticks(times.fadeOut()));
     }
-
-    this.player.sendTitle(bungee);
+    return bungee;
   }
 
   @Override
@@ -0,0 +1,141 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Records {@link Tracing} spans as flight recorder events.
+ *
+ * <p>This is loaded reflectively, only when {@code jdk.jfr} is present.</p>
+ */
+final class JfrRecorder implements Tracing.Recorder {
+  private final EventType serialize = EventType.getEventType(Serialize.class);
+  private final EventType sendPacket = EventType.getEventType(SendPacket.class);
+  private final EventType multicastPacket = EventType.getEventType(MulticastPacket.class);
+  private final EventType dispatch = EventType.getEventType(Dispatch.class);
+  private final EventType bossBarUpdate = EventType.getEventType(BossBarUpdate.class);
+
+  @Override
+  public boolean enabled(final Tracing.@NonNull Kind kind) {
+    switch(kind) {
+      case SERIALIZE: return this.serialize.isEnabled();
+      case SEND_PACKET: return this.sendPacket.isEnabled();
+      case MULTICAST_PACKET: return this.multicastPacket.isEnabled();
+      case DISPATCH: return this.dispatch.isEnabled();
+      case BOSS_BAR_UPDATE: return this.bossBarUpdate.isEnabled();
+      default: return false;
+    }
+  }
+
+  @Override
+  public Tracing.@NonNull Span begin(final Tracing.@NonNull Kind kind) {
+    final AdventureEvent event;
+    switch(kind) {
+      case SERIALIZE:
+        if(!this.serialize.isEnabled()) return Tracing.NONE;
+        event = new Serialize();
+        break;
+      case SEND_PACKET:
+        if(!this.sendPacket.isEnabled()) return Tracing.NONE;
+        event = new SendPacket();
+        break;
+      case MULTICAST_PACKET:
+        if(!this.multicastPacket.isEnabled()) return Tracing.NONE;
+        event = new MulticastPacket();
+        break;
+      case DISPATCH:
+        if(!this.dispatch.isEnabled()) return Tracing.NONE;
+        event = new Dispatch();
+        break;
+      case BOSS_BAR_UPDATE:
+        if(!this.bossBarUpdate.isEnabled()) return Tracing.NONE;
+        event = new BossBarUpdate();
+        break;
+      default:
+        return Tracing.NONE;
+    }
+    event.begin();
+    return event;
+  }
+
+  @Category("Adventure")
+  abstract static class AdventureEvent extends Event implements Tracing.Span {
+    @Label("Source")
+    @Description("The handler or packet type involved")
+    String source;
+
+    @Label("Viewers")
+    int viewers;
+
+    @Override
+    public void end(final @Nullable Object source, final int viewers, final long size) {
+      this.source = source == null ? null : source.getClass().getName();
+      this.viewers = viewers;
+      this.commit();
+    }
+  }
+
+  @Name("net.kyori.adventure.Serialize")
+  @Label("Component Serialization")
+  static final class Serialize extends AdventureEvent {
+  }
+
+  @Name("net.kyori.adventure.SendPacket")
+  @Label("Packet Send")
+  static final class SendPacket extends AdventureEvent {
+  }
+
+  @Name("net.kyori.adventure.MulticastPacket")
+  @Label("Packet Multicast")
+  static final class MulticastPacket extends AdventureEvent {
+    @Label("Encoded Size")
+    @DataAmount
+    long size;
+
+    @Override
+    public void end(final @Nullable Object source, final int viewers, final long size) {
+      this.size = size;
+      super.end(source, viewers, size);
+    }
+  }
+
+  @Name("net.kyori.adventure.Dispatch")
+  @Label("Audience Dispatch")
+  static final class Dispatch extends AdventureEvent {
+  }
+
+  @Name("net.kyori.adventure.BossBarUpdate")
+  @Label("Boss Bar Update")
+  static final class BossBarUpdate extends AdventureEvent {
+  }
+}
@@ -23,6 +23,7 @@
  */
 package net.kyori.adventure.platform.common;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Locale;
@@ -32,7 +33,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import net.kyori.adventure.audience.Audience;
-import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.platform.AudienceProvider;
 import net.kyori.adventure.platform.common.audience.AdventureAudience;
@@ -64,9 +65,9 @@ public abstract class AbstractAudienceProvider implements AudienceProvider {
 
   protected AbstractAudienceProvider() {
     this.senderSet = ConcurrentHashMap.newKeySet();
-    this.all = (ForwardingAudience) () -> this.senderSet;
+    this.all = (BatchingForwardingAudience) () -> this.senderSet;
     this.playerMap = new ConcurrentHashMap<>();
-    this.players = (ForwardingAudience) () -> this.playerMap.values();
+    this.players = (BatchingForwardingAudience) () -> this.playerMap.values();
     this.console = new ConsoleAudience();
     this.permissionMap = new ConcurrentHashMap<>();
     this.worldMap = new ConcurrentHashMap<>();
@@ -111,7 +112,7 @@ public abstract class AbstractAudienceProvider implements AudienceProvider {
     return this.all;
   }
 
-  private class ConsoleAudience implements ForwardingAudience {
+  private class ConsoleAudience implements BatchingForwardingAudience {
     private final Iterable<AdventureAudience> console = filter(AbstractAudienceProvider.this.senderSet, AdventureAudience::console);
 
     @Override
@@ -136,7 +137,7 @@ public abstract class AbstractAudienceProvider implements AudienceProvider {
     return player == null ? Audience.empty() : player;
   }
 
-  private final class PermissionAudience implements ForwardingAudience {
+  private final class PermissionAudience implements BatchingForwardingAudience {
     private final Iterable<AdventureAudience> filtered = filter(AbstractAudienceProvider.this.senderSet, this::hasPermission);
     private final String permission;
 
@@ -162,7 +163,7 @@ public abstract class AbstractAudienceProvider implements AudienceProvider {
     return this.permissionMap.computeIfAbsent(permission, PermissionAudience::new);
   }
 
-  private final class WorldAudience implements ForwardingAudience {
+  private final class WorldAudience implements BatchingForwardingAudience {
     private final Iterable<AdventurePlayerAudience> filtered = filter(AbstractAudienceProvider.this.playerMap.values(), this::inWorld);
     private final Key world;
 
@@ -185,7 +186,7 @@ public abstract class AbstractAudienceProvider implements AudienceProvider {
     return this.worldMap.computeIfAbsent(world, WorldAudience::new);
   }
 
-  private final class ServerAudience implements ForwardingAudience {
+  private final class ServerAudience implements BatchingForwardingAudience {
     private final Iterable<AdventurePlayerAudience> filtered = filter(AbstractAudienceProvider.this.playerMap.values(), this::isOnServer);
     private final String serverName;
 
@@ -213,6 +214,16 @@ public abstract class AbstractAudienceProvider implements AudienceProvider {
     return this.localeRenderer;
   }
 
+  @Override
+  public void limitBossBarProgress(final @NonNull BossBar bar, final float minimumDelta, final @NonNull Duration minimumInterval) {
+    AbstractBossBarListener.limitProgress(requireNonNull(bar, "bar"), minimumDelta, requireNonNull(minimumInterval, "minimumInterval"));
+  }
+
+  @Override
+  public @NonNull Map<String, Long> metrics() {
+    return HandlerMetrics.snapshot();
+  }
+
   @Override
   public void close() {
     if(!this.closed) {
@@ -225,6 +236,7 @@ public abstract class AbstractAudienceProvider implements AudienceProvider {
       this.permissionMap = Collections.emptyMap();
       this.worldMap = Collections.emptyMap();
       this.serverMap = Collections.emptyMap();
+      Knobs.flushErrors();
     }
   }
 
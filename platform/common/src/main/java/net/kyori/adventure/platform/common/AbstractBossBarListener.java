@@ -23,33 +23,358 @@
  */
 package net.kyori.adventure.platform.common;
 
-import java.util.Collections;
-import java.util.IdentityHashMap;
-import java.util.Iterator;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.function.BiConsumer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * A boss bar handler that keeps one platform instance for each boss bar shown.
+ *
+ * <p>Changes to a boss bar are passed to {@link #update(BossBar, Object, int)} as a mask of {@code CHANGE_*} flags.
+ * While {@link #coalesce(boolean) coalescing}, changes are collected and only sent when {@link #flush() flushed},
+ * so a bar that changes several times between flushes is only updated once.</p>
+ *
+ * <p>Progress changes may also be held back by a limit set with {@link #limitProgress(BossBar, float, Duration)}.
+ * Held changes are retried at each flush. When not coalescing, they are sent with the next change, or once the
+ * minimum interval has passed if a {@link #scheduler(Scheduler) scheduler} is set.</p>
+ *
+ * @param <V> viewer type
+ * @param <I> platform boss bar type
+ */
 public abstract class AbstractBossBarListener<V, I> implements Handler.BossBars<V>, BossBar.Listener {
-  private final Map<BossBar, I> bars = Collections.synchronizedMap(new IdentityHashMap<>());
+  protected static final int CHANGE_NAME = 1;
+  protected static final int CHANGE_PERCENT = 1 << 1;
+  protected static final int CHANGE_COLOR = 1 << 2;
+  protected static final int CHANGE_OVERLAY = 1 << 3;
+  protected static final int CHANGE_FLAGS = 1 << 4;
+
+  private final Map<Key, I> bars = new ConcurrentHashMap<>();
+  private final Map<V, Set<BossBar>> viewing = new ConcurrentHashMap<>();
+  private static final Map<WeakKey, ProgressLimit> PROGRESS_LIMITS = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<BossBar> COLLECTED_BARS = new ReferenceQueue<>();
+  private static final long PROGRESS_READY = 0;
+  private static final long PROGRESS_HELD = -1; // until progress changes by the minimum delta
+
+  private final Map<Key, Integer> changes = new ConcurrentHashMap<>();
+  private final Map<Key, SentProgress> sentProgress = new ConcurrentHashMap<>();
+  private volatile boolean coalescing;
+  private volatile @Nullable Scheduler scheduler;
+
+  /**
+   * Runs a task after a delay, on a thread that boss bars may be updated from.
+   */
+  @FunctionalInterface
+  public interface Scheduler {
+    /**
+     * Schedule a task.
+     *
+     * @param task the task
+     * @param delay the delay, in nanoseconds
+     */
+    void schedule(final @NonNull Runnable task, final long delay);
+  }
+
+  /**
+   * Limit how often progress changes to a boss bar are sent, for every listener.
+   *
+   * @param bar the boss bar
+   * @param minimumDelta the smallest change in progress to send
+   * @param minimumInterval the shortest time between progress updates
+   * @see net.kyori.adventure.platform.AudienceProvider#limitBossBarProgress(BossBar, float, Duration)
+   */
+  public static void limitProgress(final @NonNull BossBar bar, final float minimumDelta, final @NonNull Duration minimumInterval) {
+    Reference<? extends BossBar> collected;
+    while((collected = COLLECTED_BARS.poll()) != null) {
+      PROGRESS_LIMITS.remove(collected);
+    }
+    if(minimumDelta <= 0 && minimumInterval.isZero()) {
+      PROGRESS_LIMITS.remove(new WeakKey(bar, null));
+    } else {
+      PROGRESS_LIMITS.put(new WeakKey(bar, COLLECTED_BARS), new ProgressLimit(minimumDelta, minimumInterval.toNanos()));
+    }
+  }
+
+  private static @Nullable ProgressLimit progressLimit(final @NonNull BossBar bar) {
+    if(PROGRESS_LIMITS.isEmpty()) return null;
+    return PROGRESS_LIMITS.get(new WeakKey(bar, null));
+  }
+
+  /**
+   * Set the scheduler used to retry held changes for any boss bar listeners among {@code handlers}.
+   *
+   * @param handlers the handlers
+   * @param scheduler the scheduler
+   */
+  public static void scheduler(final @NonNull Iterable<? extends Handler.BossBars<?>> handlers, final @Nullable Scheduler scheduler) {
+    for(final Handler.BossBars<?> handler : handlers) {
+      if(handler instanceof AbstractBossBarListener<?, ?>) {
+        ((AbstractBossBarListener<?, ?>) handler).scheduler(scheduler);
+      }
+    }
+  }
+
+  /**
+   * Start or stop coalescing changes in any boss bar listeners among {@code handlers}.
+   *
+   * @param handlers the handlers
+   * @param coalesce whether to coalesce
+   * @return if any handler is a listener that will need to be {@link #flush() flushed}
+   */
+  public static boolean coalesce(final @NonNull Iterable<? extends Handler.BossBars<?>> handlers, final boolean coalesce) {
+    boolean any = false;
+    for(final Handler.BossBars<?> handler : handlers) {
+      if(handler instanceof AbstractBossBarListener<?, ?>) {
+        ((AbstractBossBarListener<?, ?>) handler).coalesce(coalesce);
+        any = true;
+      }
+    }
+    return any;
+  }
+
+  /**
+   * Flush any boss bar listeners among {@code handlers}.
+   *
+   * @param handlers the handlers
+   */
+  public static void flush(final @NonNull Iterable<? extends Handler.BossBars<?>> handlers) {
+    for(final Handler.BossBars<?> handler : handlers) {
+      if(handler instanceof AbstractBossBarListener<?, ?>) {
+        ((AbstractBossBarListener<?, ?>) handler).flush();
+      }
+    }
+  }
 
   @Override
   public void show(@NonNull final V viewer, final @NonNull BossBar bar) {
-    final I instance = this.bars.computeIfAbsent(bar, adventure -> {
-      adventure.addListener(this);
-      return this.newInstance(adventure);
+    this.bars.compute(new Key(bar), (key, existing) -> {
+      final I instance;
+      if(existing == null) {
+        bar.addListener(this);
+        instance = this.newInstance(bar);
+      } else {
+        instance = existing;
+      }
+      this.show(viewer, instance);
+      return instance;
     });
-    this.show(viewer, instance);
+    this.viewing.computeIfAbsent(viewer, v -> ConcurrentHashMap.newKeySet()).add(bar);
+  }
+
+  @Override
+  public void bossBarNameChanged(final @NonNull BossBar bar, final @NonNull Component oldName, final @NonNull Component newName) {
+    this.changed(bar, CHANGE_NAME);
+  }
+
+  @Override
+  public void bossBarPercentChanged(final @NonNull BossBar bar, final float oldPercent, final float newPercent) {
+    this.changed(bar, CHANGE_PERCENT);
+  }
+
+  @Override
+  public void bossBarColorChanged(final @NonNull BossBar bar, final BossBar.@NonNull Color oldColor, final BossBar.@NonNull Color newColor) {
+    this.changed(bar, CHANGE_COLOR);
+  }
+
+  @Override
+  public void bossBarOverlayChanged(final @NonNull BossBar bar, final BossBar.@NonNull Overlay oldOverlay, final BossBar.@NonNull Overlay newOverlay) {
+    this.changed(bar, CHANGE_OVERLAY);
+  }
+
+  @Override
+  public void bossBarFlagsChanged(final @NonNull BossBar bar, final @NonNull Set<BossBar.Flag> oldFlags, final @NonNull Set<BossBar.Flag> newFlags) {
+    this.changed(bar, CHANGE_FLAGS);
+  }
+
+  /**
+   * Record a change to a boss bar, sending it now unless coalescing.
+   *
+   * @param bar the boss bar
+   * @param change the {@code CHANGE_*} flag for what changed
+   */
+  protected void changed(final @NonNull BossBar bar, final int change) {
+    final Key key = new Key(bar);
+    if(this.coalescing) {
+      this.changes.merge(key, change, (existing, added) -> existing | added);
+    } else {
+      // changes held back earlier are folded into this update
+      final Integer held = this.changes.remove(key);
+      this.hold(key, this.update(key, held == null ? change : change | held));
+    }
+  }
+
+  /**
+   * Send changes to a boss bar, unless its progress limit holds them back.
+   *
+   * @param key the boss bar
+   * @param changes the changes to send
+   * @return any changes that were held back
+   */
+  private int update(final @NonNull Key key, final int changes) {
+    final I instance = this.bars.get(key);
+    if(instance == null) return 0;
+
+    int send = changes;
+    if((changes & CHANGE_PERCENT) != 0) {
+      final long delay = this.progressDelay(key);
+      if(delay != PROGRESS_READY) {
+        send &= ~CHANGE_PERCENT;
+        if(delay > 0 && !this.coalescing) {
+          this.retryLater(key, delay);
+        }
+      }
+    }
+    if(send != 0) {
+      final Tracing.Span span = Tracing.begin(Tracing.Kind.BOSS_BAR_UPDATE);
+      try {
+        this.update(key.bar, instance, send);
+      } finally {
+        span.end(this, span == Tracing.NONE ? 0 : this.viewers(instance));
+      }
+    }
+    return changes & ~send;
   }
 
-  protected <T> void handle(final BossBar adventure, final T changedValue, final BiConsumer<T, I> handler) {
-    final I instance = this.bars.get(adventure);
-    if(instance != null) {
-      handler.accept(changedValue, instance);
+  private void hold(final @NonNull Key key, final int held) {
+    if(held != 0) {
+      this.changes.merge(key, held, (existing, added) -> existing | added);
     }
   }
 
+  /**
+   * Check whether a progress change can be sent now.
+   *
+   * @param key the boss bar
+   * @return {@link #PROGRESS_READY} if it can be sent, {@link #PROGRESS_HELD} if it is too small,
+   *     or the nanoseconds until the minimum interval has passed
+   */
+  private long progressDelay(final @NonNull Key key) {
+    final ProgressLimit limit = progressLimit(key.bar);
+    if(limit == null) return PROGRESS_READY;
+
+    final float percent = key.bar.percent();
+    final long now = System.nanoTime();
+    final SentProgress sent = this.sentProgress.computeIfAbsent(key, k -> new SentProgress());
+    synchronized(sent) {
+      if(sent.time != 0) {
+        final long wait = limit.minimumInterval - (now - sent.time);
+        if(wait > 0) return wait;
+        final boolean end = percent <= 0 || percent >= 1;
+        if(!end && Math.abs(percent - sent.percent) < limit.minimumDelta) return PROGRESS_HELD;
+      }
+      sent.percent = percent;
+      sent.time = now;
+      return PROGRESS_READY;
+    }
+  }
+
+  /**
+   * Send held changes to a boss bar once its minimum interval has passed.
+   *
+   * <p>Without a scheduler, held changes wait for the next change instead.</p>
+   *
+   * @param key the boss bar
+   * @param delay nanoseconds until the changes can be sent
+   */
+  private void retryLater(final @NonNull Key key, final long delay) {
+    final Scheduler scheduler = this.scheduler;
+    final SentProgress sent = this.sentProgress.get(key);
+    if(scheduler == null || sent == null) return;
+    synchronized(sent) {
+      if(sent.retrying) return;
+      sent.retrying = true;
+    }
+    scheduler.schedule(() -> {
+      synchronized(sent) {
+        sent.retrying = false;
+      }
+      final Integer held = this.changes.remove(key);
+      if(held != null) {
+        this.hold(key, this.update(key, held));
+      }
+    }, delay);
+  }
+
+  /**
+   * Set the scheduler used to send held changes once they can be sent, when not coalescing.
+   *
+   * @param scheduler the scheduler, or null to wait for the next change
+   */
+  public void scheduler(final @Nullable Scheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Start or stop coalescing changes.
+   *
+   * <p>Any changes collected so far are sent when coalescing stops.</p>
+   *
+   * @param coalesce whether to coalesce
+   */
+  public void coalesce(final boolean coalesce) {
+    this.coalescing = coalesce;
+    if(!coalesce) {
+      this.flush();
+    }
+  }
+
+  /**
+   * Send every change collected since the last flush, once per boss bar.
+   */
+  public void flush() {
+    Map<Key, Integer> held = null;
+    for(final Key key : this.changes.keySet()) {
+      final Integer changes = this.changes.remove(key);
+      if(changes != null) {
+        final int remaining = this.update(key, changes);
+        if(remaining != 0) {
+          if(held == null) held = new HashMap<>();
+          held.put(key, remaining);
+        }
+      }
+    }
+    // changes held back by a progress limit are tried again at the next flush
+    if(held != null) {
+      for(final Map.Entry<Key, Integer> entry : held.entrySet()) {
+        this.changes.merge(entry.getKey(), entry.getValue(), (existing, added) -> existing | added);
+      }
+    }
+  }
+
+  /**
+   * Get whether changes should be sent by replacing the whole bar, rather than one action at a time.
+   *
+   * <p>Each update action carries a single property. Clients from 1.9 replace a bar when they receive
+   * an {@link Handler.BossBars#ACTION_ADD add} action for an id they already have, so a new name and style
+   * can be shown together in one packet instead of one after the other. A replaced bar jumps to its progress
+   * rather than animating towards it, so changes that include progress are always sent one action at a time.</p>
+   *
+   * @param changes a mask of {@code CHANGE_*} flags
+   * @return if the bar should be replaced
+   */
+  protected static boolean replaceOnUpdate(final int changes) {
+    return (changes & CHANGE_PERCENT) == 0
+      && (changes & CHANGE_NAME) != 0
+      && (changes & (CHANGE_COLOR | CHANGE_OVERLAY)) != 0;
+  }
+
+  /**
+   * Update a platform boss bar to match the current state of an adventure boss bar.
+   *
+   * @param adventure the adventure boss bar
+   * @param bar the platform boss bar
+   * @param changes a mask of {@code CHANGE_*} flags for what has changed
+   */
+  protected abstract void update(final @NonNull BossBar adventure, final @NonNull I bar, final int changes);
+
   protected abstract @NonNull I newInstance(final @NonNull BossBar adventure);
 
   protected abstract void show(final @NonNull V viewer, final @NonNull I bar);
@@ -58,13 +383,41 @@ public abstract class AbstractBossBarListener<V, I> implements Handler.BossBars<
 
   protected abstract boolean isEmpty(final @NonNull I bar);
 
+  /**
+   * Count the viewers of a platform boss bar, for tracing.
+   *
+   * @param bar the platform boss bar
+   * @return the number of viewers
+   */
+  protected abstract int viewers(final @NonNull I bar);
+
   protected abstract void hideFromAll(final @NonNull I bar);
 
+  /**
+   * Called once a platform boss bar has been hidden from every viewer and will no longer be used.
+   *
+   * @param bar the platform boss bar
+   */
+  protected void dispose(final @NonNull I bar) {
+  }
+
   @Override
   public void hide(@NonNull final V viewer, final @NonNull BossBar bar) {
-    this.bars.computeIfPresent(bar, (adventure, existing) -> {
+    final Set<BossBar> viewed = this.viewing.get(viewer);
+    if(viewed != null) {
+      viewed.remove(bar);
+    }
+    this.hide0(viewer, bar);
+  }
+
+  private void hide0(final @NonNull V viewer, final @NonNull BossBar bar) {
+    this.bars.computeIfPresent(new Key(bar), (key, existing) -> {
       this.hide(viewer, existing);
       if(this.isEmpty(existing)) {
+        bar.removeListener(this);
+        this.sentProgress.remove(key);
+        this.changes.remove(key);
+        this.dispose(existing);
         return null;
       } else {
         return existing;
@@ -74,24 +427,86 @@ public abstract class AbstractBossBarListener<V, I> implements Handler.BossBars<
 
   @Override
   public void hideAll(@NonNull final V viewer) {
-    for(final Iterator<Map.Entry<BossBar, I>> it = this.bars.entrySet().iterator(); it.hasNext();) {
-      final Map.Entry<BossBar, I> entry = it.next();
-      if(this.hide(viewer, entry.getValue())) {
-        if(this.isEmpty(entry.getValue())) {
-          entry.getKey().removeListener(this);
-          it.remove();
-        }
+    final Set<BossBar> viewed = this.viewing.remove(viewer);
+    if(viewed != null) {
+      for(final BossBar bar : viewed) {
+        this.hide0(viewer, bar);
       }
     }
   }
 
   @Override
   public void hideAll() {
-    for(final Map.Entry<BossBar, I> entry : this.bars.entrySet()) {
-      entry.getKey().removeListener(this);
+    for(final Map.Entry<Key, I> entry : this.bars.entrySet()) {
+      entry.getKey().bar.removeListener(this);
       this.hideFromAll(entry.getValue());
+      this.dispose(entry.getValue());
     }
     this.bars.clear();
+    this.viewing.clear();
+    this.changes.clear();
+    this.sentProgress.clear();
+  }
+
+  private static final class ProgressLimit {
+    final float minimumDelta;
+    final long minimumInterval; // nanoseconds
+
+    ProgressLimit(final float minimumDelta, final long minimumInterval) {
+      this.minimumDelta = minimumDelta;
+      this.minimumInterval = minimumInterval;
+    }
+  }
+
+  private static final class SentProgress {
+    float percent;
+    long time; // System#nanoTime, or 0 if nothing has been sent
+    boolean retrying;
+  }
+
+  /**
+   * Compares boss bars by identity, since implementations may define equality differently.
+   */
+  private static final class Key {
+    final BossBar bar;
+
+    Key(final @NonNull BossBar bar) {
+      this.bar = bar;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object other) {
+      return other instanceof Key && ((Key) other).bar == this.bar;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.bar);
+    }
   }
 
+  /**
+   * Compares boss bars by identity, without keeping them from being collected.
+   */
+  private static final class WeakKey extends WeakReference<BossBar> {
+    private final int hash;
+
+    WeakKey(final @NonNull BossBar bar, final @Nullable ReferenceQueue<BossBar> queue) {
+      super(bar, queue);
+      this.hash = System.identityHashCode(bar);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object other) {
+      if(this == other) return true;
+      if(!(other instanceof WeakKey)) return false;
+      final BossBar bar = this.get();
+      return bar != null && bar == ((WeakKey) other).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
 }
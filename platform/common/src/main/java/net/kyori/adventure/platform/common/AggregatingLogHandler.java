@@ -0,0 +1,147 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A log handler that reports repeated errors as a periodic summary.
+ *
+ * <p>The first occurrence of an error is passed on in full. Later occurrences with the same message pattern,
+ * exception type and reporting handler are only counted, whatever their parameters, and the counts are logged
+ * once the interval has passed, or when {@link #flush()} is called. Each summary starts a new window, so an
+ * error that keeps happening is logged in full once per interval.</p>
+ */
+public final class AggregatingLogHandler implements Knobs.LogHandler {
+  private static final int MAXIMUM_ERRORS = 256; // distinct errors to track per interval, any more are logged as they happen
+  private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(task -> {
+    final Thread thread = new Thread(task, "adventure-error-summary");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Knobs.LogHandler delegate;
+  private final long interval;
+  private final Map<Key, Occurrences> errors = new ConcurrentHashMap<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  public AggregatingLogHandler(final Knobs.@NonNull LogHandler delegate, final long interval, final @NonNull TimeUnit unit) {
+    this.delegate = requireNonNull(delegate, "delegate");
+    this.interval = unit.toNanos(interval);
+  }
+
+  @Override
+  public void info(final @NonNull String message, final Object@NonNull... params) {
+    this.delegate.info(message, params);
+  }
+
+  @Override
+  public void error(final @Nullable Throwable exc, final @NonNull String message, final Object@NonNull... params) {
+    final Handler<?> handler = Knobs.handling();
+    final Key key = new Key(message, exc == null ? null : exc.getClass(), handler == null ? null : handler.getClass());
+    Occurrences occurrences = this.errors.get(key);
+    if(occurrences == null) {
+      if(this.errors.size() >= MAXIMUM_ERRORS) {
+        this.delegate.error(exc, message, params);
+        return;
+      }
+      occurrences = this.errors.putIfAbsent(key, new Occurrences(MessageFormat.format(message, params)));
+      if(occurrences == null) {
+        this.delegate.error(exc, message, params);
+        this.scheduleSummary();
+        return;
+      }
+    }
+    occurrences.suppressed.incrementAndGet();
+  }
+
+  /**
+   * Log a summary of any errors suppressed since the last summary, and start a new window.
+   */
+  public void flush() {
+    this.scheduled.set(false);
+    for(final Iterator<Map.Entry<Key, Occurrences>> it = this.errors.entrySet().iterator(); it.hasNext();) {
+      final Map.Entry<Key, Occurrences> error = it.next();
+      it.remove();
+      final int suppressed = error.getValue().suppressed.get();
+      if(suppressed > 0) {
+        this.delegate.error(null, "Adventure suppressed {0} more errors ({1}), first seen as: {2}",
+          suppressed, error.getKey().type == null ? "no exception" : error.getKey().type.getName(), error.getValue().sample);
+      }
+    }
+  }
+
+  private void scheduleSummary() {
+    if(this.scheduled.compareAndSet(false, true)) {
+      TIMER.schedule(this::flush, this.interval, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static final class Key {
+    private final String message;
+    private final @Nullable Class<?> type;
+    private final @Nullable Class<?> handler;
+
+    Key(final @NonNull String message, final @Nullable Class<?> type, final @Nullable Class<?> handler) {
+      this.message = message;
+      this.type = type;
+      this.handler = handler;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object other) {
+      if(this == other) return true;
+      if(!(other instanceof Key)) return false;
+      final Key that = (Key) other;
+      return this.message.equals(that.message) && this.type == that.type && this.handler == that.handler;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.message, this.type, this.handler);
+    }
+  }
+
+  private static final class Occurrences {
+    private final String sample; // the first message, formatted
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    Occurrences(final @NonNull String sample) {
+      this.sample = sample;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.audience.MessageType;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A {@link ForwardingAudience} that dispatches to {@link HandledAudience}s in batches.
+ *
+ * <p>Audiences that share a handler have any per-message state created once,
+ * and are then passed to their handler together. Any other audiences are forwarded to individually.</p>
+ */
+@FunctionalInterface
+public interface BatchingForwardingAudience extends ForwardingAudience {
+  @Override
+  default void sendMessage(final @NonNull Component message) {
+    this.sendMessage(message, MessageType.SYSTEM);
+  }
+
+  @Override
+  default void sendMessage(final @NonNull Component message, final @NonNull MessageType type) {
+    HandledAudience.sendMessage(this.audiences(), message, type);
+  }
+
+  @Override
+  default void sendActionBar(final @NonNull Component message) {
+    HandledAudience.sendActionBar(this.audiences(), message);
+  }
+
+  @Override
+  default void showTitle(final @NonNull Title title) {
+    HandledAudience.showTitle(this.audiences(), title);
+  }
+}
@@ -23,6 +23,13 @@
  */
 package net.kyori.adventure.platform.common;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.bossbar.BossBar;
@@ -63,6 +70,165 @@ public class HandledAudience<V> implements Audience {
     this.bookHandler = handler(books, viewer);
   }
 
+  /**
+   * Send a message to every audience in {@code audiences}.
+   *
+   * <p>Handled audiences that share a chat handler are sent the message together, so message state can be created once.</p>
+   *
+   * @param audiences audiences to send to
+   * @param message the message
+   * @param type the message type
+   */
+  static void sendMessage(final @NonNull Iterable<? extends Audience> audiences, final @NonNull Component message, final @NonNull MessageType type) {
+    requireNonNull(message, "message");
+    final Map<Handler.Chat<?, ?>, List<Object>> groups = group(audiences, audience -> audience.chatHandler, audience -> audience.sendMessage(message, type));
+    for(final Map.Entry<Handler.Chat<?, ?>, List<Object>> group : groups.entrySet()) {
+      sendMessage0(group.getKey(), group.getValue(), message, type);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> void sendMessage0(final Handler.@NonNull Chat<?, ?> handler, final @NonNull List<Object> viewers, final @NonNull Component message, final @NonNull MessageType type) {
+    if(instrumented()) {
+      dispatch(handler, viewers.size(), () -> ((Handler.Chat<V, ?>) handler).broadcast((List<V>) viewers, message, type));
+    } else {
+      ((Handler.Chat<V, ?>) handler).broadcast((List<V>) viewers, message, type);
+    }
+  }
+
+  /**
+   * Send an action bar message to every audience in {@code audiences}.
+   *
+   * <p>Handled audiences that share an action bar handler are sent the message together, so message state can be created once.</p>
+   *
+   * @param audiences audiences to send to
+   * @param message the message
+   */
+  static void sendActionBar(final @NonNull Iterable<? extends Audience> audiences, final @NonNull Component message) {
+    requireNonNull(message, "message");
+    final Map<Handler.ActionBar<?, ?>, List<Object>> groups = group(audiences, audience -> audience.actionBarHandler, audience -> audience.sendActionBar(message));
+    for(final Map.Entry<Handler.ActionBar<?, ?>, List<Object>> group : groups.entrySet()) {
+      sendActionBar0(group.getKey(), group.getValue(), message);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> void sendActionBar0(final Handler.@NonNull ActionBar<?, ?> handler, final @NonNull List<Object> viewers, final @NonNull Component message) {
+    if(instrumented()) {
+      dispatch(handler, viewers.size(), () -> ((Handler.ActionBar<V, ?>) handler).broadcast((List<V>) viewers, message));
+    } else {
+      ((Handler.ActionBar<V, ?>) handler).broadcast((List<V>) viewers, message);
+    }
+  }
+
+  /**
+   * Show a title to every audience in {@code audiences}.
+   *
+   * <p>Handled audiences that share a title handler are sent the title together, so title packets can be created once.</p>
+   *
+   * @param audiences audiences to send to
+   * @param title the title
+   */
+  static void showTitle(final @NonNull Iterable<? extends Audience> audiences, final @NonNull Title title) {
+    requireNonNull(title, "title");
+    final Map<Handler.Titles<?>, List<Object>> groups = group(audiences, audience -> audience.titleHandler, audience -> audience.showTitle(title));
+    for(final Map.Entry<Handler.Titles<?>, List<Object>> group : groups.entrySet()) {
+      showTitle0(group.getKey(), group.getValue(), title);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> void showTitle0(final Handler.@NonNull Titles<?> handler, final @NonNull List<Object> viewers, final @NonNull Title title) {
+    if(instrumented()) {
+      dispatch(handler, viewers.size(), () -> ((Handler.Titles<V>) handler).broadcast((List<V>) viewers, title));
+    } else {
+      ((Handler.Titles<V>) handler).broadcast((List<V>) viewers, title);
+    }
+  }
+
+  /**
+   * Group the viewers of handled audiences by the handler chosen for each.
+   *
+   * <p>Handled audiences without a handler are skipped, and any other audience is passed to {@code fallback}.</p>
+   *
+   * @param audiences audiences to group
+   * @param handler function to get the relevant handler for a handled audience
+   * @param fallback action for audiences that are not handled
+   * @param <H> handler type
+   * @return viewers, by handler identity
+   */
+  private static <H> @NonNull Map<H, List<Object>> group(final @NonNull Iterable<? extends Audience> audiences, final @NonNull Function<HandledAudience<?>, H> handler, final @NonNull Consumer<Audience> fallback) {
+    final Map<H, List<Object>> groups = new IdentityHashMap<>();
+    for(final Audience audience : audiences) {
+      if(audience instanceof HandledAudience<?>) {
+        final HandledAudience<?> handled = (HandledAudience<?>) audience;
+        final H chosen = handler.apply(handled);
+        if(chosen != null) {
+          groups.computeIfAbsent(chosen, key -> new ArrayList<>()).add(handled.viewer);
+        }
+      } else {
+        fallback.accept(audience);
+      }
+    }
+    return groups;
+  }
+
+  /**
+   * Get whether operations are being measured, by {@link HandlerMetrics metrics} or {@link Tracing tracing}.
+   *
+   * <p>When they are not, handlers should be called directly rather than through {@link #dispatch(Handler, int, Runnable)},
+   * to avoid creating the callbacks it takes.</p>
+   *
+   * @return if operations should be dispatched
+   */
+  public static boolean instrumented() {
+    return Knobs.metrics() || Tracing.enabled(Tracing.Kind.DISPATCH);
+  }
+
+  /**
+   * Dispatch an operation to a handler, recording {@link HandlerMetrics metrics} and {@link Tracing tracing} for it.
+   *
+   * @param handler the handler
+   * @param viewers the number of viewers the operation is for
+   * @param operation the operation
+   */
+  public static void dispatch(final @NonNull Handler<?> handler, final int viewers, final @NonNull Runnable operation) {
+    dispatch(handler, viewers, null, state -> operation.run());
+  }
+
+  /**
+   * Create state with a handler and dispatch an operation using it, recording {@link HandlerMetrics metrics}
+   * and {@link Tracing tracing} for both.
+   *
+   * @param handler the handler
+   * @param viewers the number of viewers the operation is for
+   * @param state creates the state, or null if the operation has none
+   * @param operation the operation
+   * @param <S> state type
+   */
+  public static <S> void dispatch(final @NonNull Handler<?> handler, final int viewers, final @Nullable Supplier<S> state, final @NonNull Consumer<S> operation) {
+    final HandlerMetrics metrics = HandlerMetrics.of(handler);
+    final Tracing.Span span = Tracing.begin(Tracing.Kind.DISPATCH);
+    final Handler<?> previous = Knobs.handling(handler); // errors the handler logs are counted as failures
+    long start = metrics.start();
+    try {
+      if(state != null) {
+        final S created = state.get();
+        start = metrics.initialized(start);
+        operation.accept(created);
+      } else {
+        operation.accept(null);
+      }
+    } catch(final RuntimeException ex) {
+      metrics.failed();
+      throw ex;
+    } finally {
+      Knobs.handling(previous);
+      metrics.sent(start, viewers);
+      span.end(handler, viewers); // failed dispatches are recorded too
+    }
+  }
+
   private static <V, H extends Handler<? super V>> H handler(final HandlerCollection<? super V, H> collection, final V viewer) {
     return collection != null ? collection.get(viewer) : null;
   }
@@ -74,21 +240,35 @@ public class HandledAudience<V> implements Audience {
 
   private <S> void sendMessage0(final Handler.@Nullable Chat<? super V, S> handler, final @NonNull Component message, final @NonNull MessageType type) {
     if(handler != null) {
-      handler.send(this.viewer, handler.initState(message, type), type);
+      if(instrumented()) {
+        dispatch(handler, 1, () -> handler.initState(message, type), state -> handler.send(this.viewer, state, type));
+      } else {
+        handler.send(this.viewer, handler.initState(message, type), type);
+      }
     }
   }
 
   @Override
   public void showBossBar(final @NonNull BossBar bar) {
+    requireNonNull(bar, "bar");
     if(this.bossBarHandler != null) {
-      this.bossBarHandler.show(this.viewer, requireNonNull(bar, "bar"));
+      if(instrumented()) {
+        dispatch(this.bossBarHandler, 1, () -> this.bossBarHandler.show(this.viewer, bar));
+      } else {
+        this.bossBarHandler.show(this.viewer, bar);
+      }
     }
   }
 
   @Override
   public void hideBossBar(final @NonNull BossBar bar) {
+    requireNonNull(bar, "bar");
     if(this.bossBarHandler != null) {
-      this.bossBarHandler.hide(this.viewer, requireNonNull(bar, "bar"));
+      if(instrumented()) {
+        dispatch(this.bossBarHandler, 1, () -> this.bossBarHandler.hide(this.viewer, bar));
+      } else {
+        this.bossBarHandler.hide(this.viewer, bar);
+      }
     }
   }
 
@@ -99,56 +279,92 @@ public class HandledAudience<V> implements Audience {
 
   private <S> void sendActionBar0(final Handler.@Nullable ActionBar<? super V, S> handler, final @NonNull Component message) {
     if(handler != null) {
-      handler.send(this.viewer, handler.initState(message));
+      if(instrumented()) {
+        dispatch(handler, 1, () -> handler.initState(message), state -> handler.send(this.viewer, state));
+      } else {
+        handler.send(this.viewer, handler.initState(message));
+      }
     }
   }
 
   @Override
   public void playSound(final @NonNull Sound sound) {
+    requireNonNull(sound, "sound");
     if(this.soundHandler != null) {
-      this.soundHandler.play(this.viewer, requireNonNull(sound, "sound"));
+      if(instrumented()) {
+        dispatch(this.soundHandler, 1, () -> this.soundHandler.play(this.viewer, sound));
+      } else {
+        this.soundHandler.play(this.viewer, sound);
+      }
     }
   }
 
   @Override
   public void playSound(final @NonNull Sound sound, final double x, final double y, final double z) {
+    requireNonNull(sound, "sound");
     if(this.soundHandler != null) {
-      this.soundHandler.play(this.viewer, requireNonNull(sound, "sound"), x, y, z);
+      if(instrumented()) {
+        dispatch(this.soundHandler, 1, () -> this.soundHandler.play(this.viewer, sound, x, y, z));
+      } else {
+        this.soundHandler.play(this.viewer, sound, x, y, z);
+      }
     }
   }
 
   @Override
   public void stopSound(final @NonNull SoundStop stop) {
+    requireNonNull(stop, "stop");
     if(this.soundHandler != null) {
-      this.soundHandler.stop(this.viewer, requireNonNull(stop, "stop"));
+      if(instrumented()) {
+        dispatch(this.soundHandler, 1, () -> this.soundHandler.stop(this.viewer, stop));
+      } else {
+        this.soundHandler.stop(this.viewer, stop);
+      }
     }
   }
 
   @Override
   public void openBook(final @NonNull Book book) {
     if(this.bookHandler != null) {
-      this.bookHandler.openBook(this.viewer, book);
+      if(instrumented()) {
+        dispatch(this.bookHandler, 1, () -> this.bookHandler.openBook(this.viewer, book));
+      } else {
+        this.bookHandler.openBook(this.viewer, book);
+      }
     }
   }
 
   @Override
   public void showTitle(final @NonNull Title title) {
+    requireNonNull(title, "title");
     if(this.titleHandler != null) {
-      this.titleHandler.send(this.viewer, requireNonNull(title, "title"));
+      if(instrumented()) {
+        dispatch(this.titleHandler, 1, () -> this.titleHandler.send(this.viewer, title));
+      } else {
+        this.titleHandler.send(this.viewer, title);
+      }
     }
   }
 
   @Override
   public void clearTitle() {
     if(this.titleHandler != null) {
-      this.titleHandler.clear(this.viewer);
+      if(instrumented()) {
+        dispatch(this.titleHandler, 1, () -> this.titleHandler.clear(this.viewer));
+      } else {
+        this.titleHandler.clear(this.viewer);
+      }
     }
   }
 
   @Override
   public void resetTitle() {
     if(this.titleHandler != null) {
-      this.titleHandler.reset(this.viewer);
+      if(instrumented()) {
+        dispatch(this.titleHandler, 1, () -> this.titleHandler.reset(this.viewer));
+      } else {
+        this.titleHandler.reset(this.viewer);
+      }
     }
   }
 }
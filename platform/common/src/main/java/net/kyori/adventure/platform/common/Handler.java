@@ -24,6 +24,7 @@
 package net.kyori.adventure.platform.common;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Set;
 import java.util.UUID;
 import net.kyori.adventure.audience.MessageType;
@@ -71,6 +72,36 @@ public interface Handler<V> {
     S initState(final @NonNull Component component, final MessageType type);
     
     void send(final @NonNull V target, final @NonNull S message, final MessageType type);
+
+    /**
+     * Send a message to several targets at once.
+     *
+     * <p>Every target must be one this handler is available for. Implementations
+     * may override this method to share work between targets.</p>
+     *
+     * @param targets targets to send to
+     * @param message message state, as created by {@link #initState(Component, MessageType)}
+     * @param type message type
+     */
+    default void sendAll(final @NonNull Collection<? extends V> targets, final @NonNull S message, final MessageType type) {
+      for(final V target : targets) {
+        this.send(target, message, type);
+      }
+    }
+
+    /**
+     * Send a message to several targets.
+     *
+     * <p>By default, message state is created once and shared between every target.
+     * Handlers that need different state for different targets may group them instead.</p>
+     *
+     * @param targets the targets
+     * @param message the message
+     * @param type message type
+     */
+    default void broadcast(final @NonNull Collection<? extends V> targets, final @NonNull Component message, final @NonNull MessageType type) {
+      this.sendAll(targets, this.initState(message, type), type);
+    }
     
     static byte messageType(final @NonNull MessageType type) {
       if(type == MessageType.CHAT) {
@@ -85,6 +116,34 @@ public interface Handler<V> {
     S initState(final @NonNull Component message);
     
     void send(final @NonNull V viewer, final @NonNull S message);
+
+    /**
+     * Send an action bar message to several viewers at once.
+     *
+     * <p>Every viewer must be one this handler is available for. Implementations
+     * may override this method to share work between viewers.</p>
+     *
+     * @param viewers viewers to send to
+     * @param message message state, as created by {@link #initState(Component)}
+     */
+    default void sendAll(final @NonNull Collection<? extends V> viewers, final @NonNull S message) {
+      for(final V viewer : viewers) {
+        this.send(viewer, message);
+      }
+    }
+
+    /**
+     * Send an action bar message to several viewers.
+     *
+     * <p>By default, message state is created once and shared between every viewer.
+     * Handlers that need different state for different viewers may group them instead.</p>
+     *
+     * @param viewers the viewers
+     * @param message the message
+     */
+    default void broadcast(final @NonNull Collection<? extends V> viewers, final @NonNull Component message) {
+      this.sendAll(viewers, this.initState(message));
+    }
   }
 
   interface Titles<V> extends Handler<V> {
@@ -95,9 +154,34 @@ public interface Handler<V> {
 
     void send(final @NonNull V viewer, final @NonNull Title title);
 
+    /**
+     * Show a title to several viewers.
+     *
+     * <p>By default, the title is sent to each viewer in turn.
+     * Handlers that can share packets between viewers should build them once instead.</p>
+     *
+     * @param viewers the viewers
+     * @param title the title
+     */
+    default void broadcast(final @NonNull Collection<? extends V> viewers, final @NonNull Title title) {
+      for(final V viewer : viewers) {
+        this.send(viewer, title);
+      }
+    }
+
     void clear(final @NonNull V viewer);
 
     void reset(final @NonNull V viewer);
+
+    /**
+     * Forget any title state kept for a viewer.
+     *
+     * <p>Called when the viewer's client may have lost its title, such as when respawning or leaving.</p>
+     *
+     * @param viewer the viewer
+     */
+    default void invalidate(final @NonNull V viewer) {
+    }
     
     static int ticks(final @NonNull Duration time) {
       return time.isNegative() ? DURATION_PRESERVE : (int) Math.ceil(time.toMillis() / 50.0);
@@ -179,6 +263,24 @@ public interface Handler<V> {
     void play(final @NonNull V viewer, final @NonNull Sound sound);
     
     void play(final @NonNull V viewer, final @NonNull Sound sound, final double x, final double y, final double z);
+
+    /**
+     * Play a sound at a position for several viewers.
+     *
+     * <p>By default, the sound is played for each viewer in turn.
+     * Handlers that can share packets between viewers should build them once instead.</p>
+     *
+     * @param viewers the viewers, all in the same world
+     * @param sound the sound
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     */
+    default void broadcast(final @NonNull Collection<? extends V> viewers, final @NonNull Sound sound, final double x, final double y, final double z) {
+      for(final V viewer : viewers) {
+        this.play(viewer, sound, x, y, z);
+      }
+    }
     
     void stop(final @NonNull V viewer, final @NonNull SoundStop sound);
   }
@@ -0,0 +1,180 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Counters and timings for a handler type.
+ *
+ * <p>Metrics are only recorded when enabled with the {@code metrics} knob. Otherwise every handler shares a
+ * disabled instance, and recording does nothing.</p>
+ */
+public final class HandlerMetrics {
+  private static final HandlerMetrics DISABLED = new HandlerMetrics(false);
+  private static final Map<String, HandlerMetrics> REGISTRY = new ConcurrentHashMap<>();
+  private static final ClassValue<HandlerMetrics> BY_TYPE = new ClassValue<HandlerMetrics>() {
+    @Override
+    protected HandlerMetrics computeValue(final Class<?> type) {
+      return REGISTRY.computeIfAbsent(type.getName(), name -> new HandlerMetrics(true));
+    }
+  };
+
+  private final boolean enabled;
+  private final Histogram initState = new Histogram();
+  private final Histogram send = new Histogram();
+  private final Histogram fanOut = new Histogram();
+  private final LongAdder errors = new LongAdder();
+
+  private HandlerMetrics(final boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Get the metrics for a handler.
+   *
+   * @param handler the handler
+   * @return metrics for the handler's type
+   */
+  public static @NonNull HandlerMetrics of(final @NonNull Handler<?> handler) {
+    return Knobs.metrics() ? BY_TYPE.get(handler.getClass()) : DISABLED;
+  }
+
+  /**
+   * Get a snapshot of the metrics recorded so far.
+   *
+   * <p>Keys are the handler's class name followed by the metric, such as {@code .send.count}. Timings are in nanoseconds,
+   * and percentiles are upper bounds, accurate to within a power of two.</p>
+   *
+   * @return the metrics, by name
+   */
+  public static @NonNull Map<String, Long> snapshot() {
+    final Map<String, Long> snapshot = new TreeMap<>();
+    for(final Map.Entry<String, HandlerMetrics> handler : REGISTRY.entrySet()) {
+      final String name = handler.getKey();
+      final HandlerMetrics metrics = handler.getValue();
+      metrics.initState.snapshot(name + ".initState", snapshot);
+      metrics.send.snapshot(name + ".send", snapshot);
+      metrics.fanOut.snapshot(name + ".fanOut", snapshot);
+      snapshot.put(name + ".errors", metrics.errors.sum());
+    }
+    return snapshot;
+  }
+
+  /**
+   * Start timing an operation.
+   *
+   * @return the start time, or 0 when disabled
+   */
+  public long start() {
+    return this.enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Record that message state was created.
+   *
+   * @param start when the state started being created
+   * @return the current time, to time sending the state
+   */
+  public long initialized(final long start) {
+    if(!this.enabled) return 0;
+    final long now = System.nanoTime();
+    this.initState.record(now - start);
+    return now;
+  }
+
+  /**
+   * Record that something was sent, successfully or not.
+   *
+   * @param start when sending started, as returned by {@link #initialized(long)} if state was created first
+   * @param viewers the number of viewers sent to
+   */
+  public void sent(final long start, final int viewers) {
+    if(!this.enabled) return;
+    this.send.record(System.nanoTime() - start);
+    this.fanOut.record(viewers);
+  }
+
+  /**
+   * Record that the handler failed, either by throwing or by logging an error it caught.
+   */
+  public void failed() {
+    if(this.enabled) {
+      this.errors.increment();
+    }
+  }
+
+  /**
+   * A histogram with a bucket for each power of two.
+   */
+  static final class Histogram {
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE + 1];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+    Histogram() {
+      for(int i = 0; i < this.buckets.length; i++) {
+        this.buckets[i] = new LongAdder();
+      }
+    }
+
+    void record(final long value) {
+      final long clamped = Math.max(0, value);
+      this.buckets[Long.SIZE - Long.numberOfLeadingZeros(clamped)].increment();
+      this.total.add(clamped);
+      this.maximum.accumulate(clamped);
+    }
+
+    void snapshot(final @NonNull String prefix, final @NonNull Map<String, Long> snapshot) {
+      final long[] counts = new long[this.buckets.length];
+      long count = 0;
+      for(int i = 0; i < counts.length; i++) {
+        counts[i] = this.buckets[i].sum();
+        count += counts[i];
+      }
+      snapshot.put(prefix + ".count", count);
+      snapshot.put(prefix + ".total", this.total.sum());
+      snapshot.put(prefix + ".max", this.maximum.get());
+      snapshot.put(prefix + ".p50", percentile(counts, count, 0.5));
+      snapshot.put(prefix + ".p99", percentile(counts, count, 0.99));
+    }
+
+    private static long percentile(final long@NonNull[] counts, final long count, final double percentile) {
+      final long rank = (long) Math.ceil(count * percentile);
+      long seen = 0;
+      for(int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if(seen >= rank && seen > 0) {
+          return i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+        }
+      }
+      return 0;
+    }
+  }
+}
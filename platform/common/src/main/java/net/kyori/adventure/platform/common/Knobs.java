@@ -24,8 +24,10 @@
 package net.kyori.adventure.platform.common;
 
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -54,6 +56,40 @@ public final class Knobs {
     return Boolean.parseBoolean(property);
   }
 
+  /**
+   * Get an integer property in the Adventure namespace.
+   *
+   * @param key property key
+   * @param def default value
+   * @return property value
+   */
+  private static int integer(final @NonNull String key, final int def) {
+    final String property = System.getProperty(PROPERTY_PREFIX + key);
+    if(property == null || property.isEmpty()) return def;
+    try {
+      return Integer.parseInt(property);
+    } catch(final NumberFormatException ex) {
+      return def;
+    }
+  }
+
+  /**
+   * Get a decimal property in the Adventure namespace.
+   *
+   * @param key property key
+   * @param def default value
+   * @return property value
+   */
+  private static double decimal(final @NonNull String key, final double def) {
+    final String property = System.getProperty(PROPERTY_PREFIX + key);
+    if(property == null || property.isEmpty()) return def;
+    try {
+      return Double.parseDouble(property);
+    } catch(final NumberFormatException ex) {
+      return def;
+    }
+  }
+
   /**
    * Get a property that is a set, from a comma-separated string.
    *
@@ -87,6 +123,46 @@ public final class Knobs {
    */
   private static final boolean PRINT_CHOSEN_HANDLER = bool("printChosenHandler", false);
 
+  /**
+   * Ticks between sending the boss bar changes made in that time. Set to 0 to send every change immediately. Default: 1
+   */
+  private static final int BOSS_BAR_UPDATE_INTERVAL = Math.max(0, integer("bossBarUpdateInterval", 1));
+
+  /**
+   * Seconds between summaries of repeated errors, when errors are printed. Set to 0 to print every error in full. Default: 60
+   */
+  private static final int ERROR_SUMMARY_INTERVAL = Math.max(0, integer("errorSummaryInterval", 60));
+
+  /**
+   * Set to true to record handler timings and counts, see {@link HandlerMetrics}. Default: false
+   */
+  private static final boolean METRICS = bool("metrics", false);
+
+  /**
+   * Set to false to never create flight recorder events, see {@link Tracing}. Default: true
+   */
+  private static final boolean FLIGHT_RECORDER = bool("flightRecorder", true);
+
+  /**
+   * Degrees a viewer must turn before an entity placed relative to them is moved. Default: 2
+   */
+  private static final double PHANTOM_ENTITY_MINIMUM_TURN = decimal("phantomEntityMinimumTurn", 2);
+
+  /**
+   * Blocks a viewer must move before an entity placed relative to them is moved. Default: 0.5
+   */
+  private static final double PHANTOM_ENTITY_MINIMUM_MOVE = decimal("phantomEntityMinimumMove", 0.5);
+
+  /**
+   * Milliseconds between moving an entity placed relative to the same viewer. Default: 100
+   */
+  private static final int PHANTOM_ENTITY_UPDATE_INTERVAL = Math.max(0, integer("phantomEntityUpdateInterval", 100));
+
+  /**
+   * Unused phantom entities to keep for reuse. Default: 16
+   */
+  private static final int PHANTOM_ENTITY_POOL_SIZE = Math.max(0, integer("phantomEntityPoolSize", 16));
+
   /**
    * @param handlerId the id of the handler to check
    * @return if the handler has been explicitly blocked
@@ -95,6 +171,69 @@ public final class Knobs {
     return !DISABLED_PROVIDERS.contains(handlerId.toLowerCase());
   }
 
+  /**
+   * Get how often boss bar changes should be sent.
+   *
+   * @return the interval, in ticks, or 0 if changes should be sent immediately
+   */
+  public static int bossBarUpdateInterval() {
+    return BOSS_BAR_UPDATE_INTERVAL;
+  }
+
+  /**
+   * Get how far a viewer must turn before a relative phantom entity is moved.
+   *
+   * @return the angle, in degrees
+   */
+  public static double phantomEntityMinimumTurn() {
+    return PHANTOM_ENTITY_MINIMUM_TURN;
+  }
+
+  /**
+   * Get how far a viewer must move before a relative phantom entity is moved.
+   *
+   * @return the distance, in blocks
+   */
+  public static double phantomEntityMinimumMove() {
+    return PHANTOM_ENTITY_MINIMUM_MOVE;
+  }
+
+  /**
+   * Get the shortest time between moving a relative phantom entity for the same viewer.
+   *
+   * @return the interval, in milliseconds
+   */
+  public static int phantomEntityUpdateInterval() {
+    return PHANTOM_ENTITY_UPDATE_INTERVAL;
+  }
+
+  /**
+   * Get how many unused phantom entities may be kept for reuse.
+   *
+   * @return the pool size
+   */
+  public static int phantomEntityPoolSize() {
+    return PHANTOM_ENTITY_POOL_SIZE;
+  }
+
+  /**
+   * Get whether handler metrics should be recorded.
+   *
+   * @return if metrics are enabled
+   */
+  public static boolean metrics() {
+    return METRICS;
+  }
+
+  /**
+   * Get whether flight recorder events may be created.
+   *
+   * @return if flight recorder events are enabled
+   */
+  public static boolean flightRecorder() {
+    return FLIGHT_RECORDER;
+  }
+
   /**
    * Log an error that occurred while performing an Adventure operation.
    *
@@ -107,8 +246,28 @@ public final class Knobs {
   }
 
   public static void logError(final @NonNull String description, final @Nullable Throwable ex) {
+    logError(description, ex, new Object[0]);
+  }
+
+  /**
+   * Log an error that occurred while performing an Adventure operation.
+   *
+   * <p>The description is a {@link MessageFormat} pattern, so details like the viewer should be passed
+   * as parameters rather than concatenated in. Repeated errors are grouped by their pattern.</p>
+   *
+   * @param description what was being done, as a pattern
+   * @param ex the exception
+   * @param params parameters for the description
+   */
+  public static void logError(final @NonNull String description, final @Nullable Throwable ex, final Object@NonNull... params) {
+    final Handler<?> handler = CURRENT_HANDLER.get();
+    if(handler != null) {
+      HandlerMetrics.of(handler).failed();
+    }
     if(PRINT_ERRORS) {
-      logger.error(ex, "Adventure detected an error when {0}: {1}.", description, ex == null ? "no exception" : ex.getMessage());
+      final Object[] args = Arrays.copyOf(params, params.length + 1);
+      args[params.length] = ex == null ? "no exception" : ex.getMessage();
+      logger.error(ex, "Adventure detected an error when " + description + ": {" + params.length + "}.", args);
     }
   }
 
@@ -122,7 +281,31 @@ public final class Knobs {
     }
   }
 
-  private static LogHandler logger = new DefaultLogHandler();
+  private static LogHandler logger = aggregate(new DefaultLogHandler());
+  private static final ThreadLocal<Handler<?>> CURRENT_HANDLER = new ThreadLocal<>();
+
+  /**
+   * Set the handler that errors logged on this thread are reported by.
+   *
+   * <p>Handlers catch and log their own errors, so this is how those errors are counted as the handler's failures.</p>
+   *
+   * @param handler the handler, or null if no handler is running
+   * @return the handler set before, to be restored once this one is done
+   */
+  static @Nullable Handler<?> handling(final @Nullable Handler<?> handler) {
+    final Handler<?> previous = CURRENT_HANDLER.get();
+    CURRENT_HANDLER.set(handler);
+    return previous;
+  }
+
+  /**
+   * Get the handler running on this thread.
+   *
+   * @return the handler, or null if none is running or operations are not {@link HandledAudience#instrumented() instrumented}
+   */
+  static @Nullable Handler<?> handling() {
+    return CURRENT_HANDLER.get();
+  }
 
   /**
    * Change the logger from the default handler that uses standard
@@ -131,7 +314,21 @@ public final class Knobs {
    * @param handler handler to use.
    */
   public static void logger(final @NonNull LogHandler handler) {
-    logger = requireNonNull(handler, "handler");
+    logger = aggregate(requireNonNull(handler, "handler"));
+  }
+
+  /**
+   * Log a summary of any repeated errors that have not been reported yet.
+   */
+  public static void flushErrors() {
+    if(logger instanceof AggregatingLogHandler) {
+      ((AggregatingLogHandler) logger).flush();
+    }
+  }
+
+  private static @NonNull LogHandler aggregate(final @NonNull LogHandler handler) {
+    if(ERROR_SUMMARY_INTERVAL == 0 || handler instanceof AggregatingLogHandler) return handler;
+    return new AggregatingLogHandler(handler, ERROR_SUMMARY_INTERVAL, TimeUnit.SECONDS);
   }
 
   /**
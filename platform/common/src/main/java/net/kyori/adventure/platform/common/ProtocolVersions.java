@@ -0,0 +1,83 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The client protocol versions of connected players.
+ *
+ * <p>Versions are recorded once when a player joins and forgotten when they leave,
+ * so that choosing handlers and serializers does not have to ask the platform every time.</p>
+ */
+public final class ProtocolVersions {
+  /**
+   * The version reported for players without a recorded version.
+   */
+  public static final int UNKNOWN = -1;
+
+  private final Map<UUID, Integer> versions = new ConcurrentHashMap<>();
+
+  /**
+   * Record the protocol version of a player.
+   *
+   * @param id the player's id
+   * @param version the protocol version
+   */
+  public void record(final @NonNull UUID id, final int version) {
+    this.versions.put(requireNonNull(id, "id"), version);
+  }
+
+  /**
+   * Forget the protocol version of a player.
+   *
+   * @param id the player's id
+   */
+  public void remove(final @NonNull UUID id) {
+    this.versions.remove(requireNonNull(id, "id"));
+  }
+
+  /**
+   * Get the protocol version of a player.
+   *
+   * @param id the player's id
+   * @return the protocol version, or {@link #UNKNOWN} if none is recorded
+   */
+  public int version(final @NonNull UUID id) {
+    final Integer version = this.versions.get(requireNonNull(id, "id"));
+    return version == null ? UNKNOWN : version;
+  }
+
+  /**
+   * Forget every recorded version.
+   */
+  public void clear() {
+    this.versions.clear();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The title times that each viewer's client was last sent.
+ *
+ * <p>Clients keep their times until their title is reset, so a handler
+ * can skip sending them when they match what the client already has.
+ * Subtitles are not tracked, since clients drop them once a title has faded out.
+ * State must be {@link #invalidate(Object) invalidated} whenever the client may have lost it.</p>
+ *
+ * @param <V> viewer type
+ */
+public final class TitleStates<V> {
+  private static final int UNKNOWN = Integer.MIN_VALUE;
+
+  private final Map<V, State> states = new ConcurrentHashMap<>();
+
+  /**
+   * Record that times are about to be sent to a viewer.
+   *
+   * @param viewer the viewer
+   * @param fadeIn fade in ticks, or {@link Handler.Titles#DURATION_PRESERVE}
+   * @param stay stay ticks, or {@link Handler.Titles#DURATION_PRESERVE}
+   * @param fadeOut fade out ticks, or {@link Handler.Titles#DURATION_PRESERVE}
+   * @return if the client does not already have these times, and they should be sent
+   */
+  public boolean times(final @NonNull V viewer, final int fadeIn, final int stay, final int fadeOut) {
+    final State state = this.state(viewer);
+    synchronized(state) {
+      if(same(state.fadeIn, fadeIn) && same(state.stay, stay) && same(state.fadeOut, fadeOut)) return false;
+      state.fadeIn = merge(state.fadeIn, fadeIn);
+      state.stay = merge(state.stay, stay);
+      state.fadeOut = merge(state.fadeOut, fadeOut);
+      return true;
+    }
+  }
+
+  /**
+   * Forget what a viewer was sent, so everything is sent again next time.
+   *
+   * @param viewer the viewer
+   */
+  public void invalidate(final @NonNull V viewer) {
+    this.states.remove(requireNonNull(viewer, "viewer"));
+  }
+
+  private @NonNull State state(final @NonNull V viewer) {
+    return this.states.computeIfAbsent(requireNonNull(viewer, "viewer"), v -> new State());
+  }
+
+  private static boolean same(final int known, final int value) {
+    return value == Handler.Titles.DURATION_PRESERVE || known == value; // preserved values do not change the client
+  }
+
+  private static int merge(final int known, final int value) {
+    return value == Handler.Titles.DURATION_PRESERVE ? known : value;
+  }
+
+  private static final class State {
+    int fadeIn = UNKNOWN;
+    int stay = UNKNOWN;
+    int fadeOut = UNKNOWN;
+  }
+}
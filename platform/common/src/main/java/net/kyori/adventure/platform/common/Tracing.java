@@ -0,0 +1,133 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Flight recorder events for profiling Adventure operations.
+ *
+ * <p>Events are only created on runtimes that include {@code jdk.jfr}, and only while a recording has enabled
+ * them. Otherwise every span is a shared instance that does nothing.</p>
+ */
+public final class Tracing {
+  static final Span NONE = (source, viewers, size) -> {};
+  private static final Recorder DISABLED = new Recorder() {
+    @Override
+    public boolean enabled(final @NonNull Kind kind) {
+      return false;
+    }
+
+    @Override
+    public @NonNull Span begin(final @NonNull Kind kind) {
+      return NONE;
+    }
+  };
+  private static final Recorder RECORDER = findRecorder();
+
+  private Tracing() {
+  }
+
+  /**
+   * The operations that can be traced.
+   */
+  public enum Kind {
+    SERIALIZE,
+    SEND_PACKET,
+    MULTICAST_PACKET,
+    DISPATCH,
+    BOSS_BAR_UPDATE
+  }
+
+  /**
+   * An operation being traced.
+   */
+  @FunctionalInterface
+  public interface Span {
+    /**
+     * Finish the operation, and record it if it took long enough.
+     *
+     * @param source the handler or packet involved, recorded by its class name
+     * @param viewers the number of viewers affected
+     */
+    default void end(final @Nullable Object source, final int viewers) {
+      this.end(source, viewers, 0);
+    }
+
+    /**
+     * Finish an operation with a known payload size, and record it if it took long enough.
+     *
+     * <p>The size is only recorded for {@link Kind#MULTICAST_PACKET multicast packets}, the only operation
+     * that has an encoded payload to measure.</p>
+     *
+     * @param source the handler or packet involved, recorded by its class name
+     * @param viewers the number of viewers affected
+     * @param size the size of the payload, in bytes
+     */
+    void end(final @Nullable Object source, final int viewers, final long size);
+  }
+
+  interface Recorder {
+    boolean enabled(final @NonNull Kind kind);
+
+    @NonNull Span begin(final @NonNull Kind kind);
+  }
+
+  /**
+   * Get whether an operation would currently be recorded.
+   *
+   * @param kind the kind of operation
+   * @return if a recording has enabled events for the operation
+   */
+  public static boolean enabled(final @NonNull Kind kind) {
+    return RECORDER.enabled(kind);
+  }
+
+  /**
+   * Start tracing an operation.
+   *
+   * @param kind the kind of operation
+   * @return a span to end once the operation is complete
+   */
+  public static @NonNull Span begin(final @NonNull Kind kind) {
+    return RECORDER.begin(kind);
+  }
+
+  private static @NonNull Recorder findRecorder() {
+    if(!Knobs.flightRecorder()) return DISABLED;
+    try {
+      Class.forName("jdk.jfr.Event");
+    } catch(final ClassNotFoundException ex) {
+      return DISABLED; // no flight recorder in this runtime
+    }
+    final String name = Tracing.class.getName();
+    try {
+      return (Recorder) Class.forName(name.substring(0, name.lastIndexOf('.') + 1) + "JfrRecorder").getDeclaredConstructor().newInstance();
+    } catch(final Throwable error) {
+      Knobs.logError("enabling flight recorder events", error);
+      return DISABLED;
+    }
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.TextComponent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AbstractBossBarListenerTest {
+  private static final String VIEWER = "viewer";
+
+  @Test
+  public void testChangesSentImmediately() {
+    final RecordingListener listener = new RecordingListener();
+    final BossBar bar = bar();
+    listener.show(VIEWER, bar);
+
+    bar.name(TextComponent.of("renamed"));
+    bar.percent(0.5f);
+    assertEquals(2, listener.updates.size());
+    assertEquals(AbstractBossBarListener.CHANGE_NAME, (int) listener.updates.get(0));
+    assertEquals(AbstractBossBarListener.CHANGE_PERCENT, (int) listener.updates.get(1));
+  }
+
+  @Test
+  public void testCoalescedChangesSentOnceOnFlush() {
+    final RecordingListener listener = new RecordingListener();
+    final BossBar bar = bar();
+    listener.show(VIEWER, bar);
+
+    listener.coalesce(true);
+    bar.name(TextComponent.of("first"));
+    bar.name(TextComponent.of("second"));
+    bar.percent(0.5f);
+    assertEquals(0, listener.updates.size());
+
+    listener.flush();
+    assertEquals(1, listener.updates.size());
+    assertEquals(AbstractBossBarListener.CHANGE_NAME | AbstractBossBarListener.CHANGE_PERCENT, (int) listener.updates.get(0));
+
+    listener.flush();
+    assertEquals(1, listener.updates.size());
+  }
+
+  @Test
+  public void testStoppingCoalescingSendsChanges() {
+    final RecordingListener listener = new RecordingListener();
+    final BossBar bar = bar();
+    listener.show(VIEWER, bar);
+
+    listener.coalesce(true);
+    bar.percent(0.5f);
+    listener.coalesce(false);
+    assertEquals(1, listener.updates.size());
+  }
+
+  @Test
+  public void testHiddenBarNotUpdated() {
+    final RecordingListener listener = new RecordingListener();
+    final BossBar bar = bar();
+    listener.show(VIEWER, bar);
+    listener.hide(VIEWER, bar);
+
+    bar.percent(0.5f);
+    assertEquals(0, listener.updates.size());
+  }
+
+  @Test
+  public void testHideAllForViewer() {
+    final RecordingListener listener = new RecordingListener();
+    final BossBar first = bar();
+    final BossBar second = bar();
+    listener.show(VIEWER, first);
+    listener.show(VIEWER, second);
+    listener.show("other", second);
+    listener.hideAll(VIEWER);
+
+    first.percent(0.5f);
+    assertEquals(0, listener.updates.size());
+    second.percent(0.5f); // still shown to the other viewer
+    assertEquals(1, listener.updates.size());
+  }
+
+  @Test
+  public void testSmallProgressChangesHeld() {
+    final RecordingListener listener = new RecordingListener();
+    final BossBar bar = bar();
+    listener.show(VIEWER, bar);
+    AbstractBossBarListener.limitProgress(bar, 0.1f, Duration.ZERO);
+    try {
+      bar.percent(0.5f);
+      assertEquals(1, listener.updates.size());
+
+      bar.percent(0.55f); // too small
+      assertEquals(1, listener.updates.size());
+
+      bar.name(TextComponent.of("renamed")); // the held progress change is retried with this one
+      assertEquals(2, listener.updates.size());
+      assertEquals(AbstractBossBarListener.CHANGE_NAME, (int) listener.updates.get(1));
+
+      bar.percent(0.65f);
+      assertEquals(3, listener.updates.size());
+      assertEquals(AbstractBossBarListener.CHANGE_PERCENT, (int) listener.updates.get(2));
+
+      bar.percent(0.95f);
+      bar.percent(1f); // the end is always sent
+      assertEquals(5, listener.updates.size());
+    } finally {
+      AbstractBossBarListener.limitProgress(bar, 0, Duration.ZERO);
+    }
+  }
+
+  @Test
+  public void testFrequentProgressChangesRetried() {
+    final RecordingListener listener = new RecordingListener();
+    final List<Runnable> scheduled = new ArrayList<>();
+    listener.scheduler((task, delay) -> scheduled.add(task));
+    final BossBar bar = bar();
+    listener.show(VIEWER, bar);
+    AbstractBossBarListener.limitProgress(bar, 0, Duration.ofHours(1));
+    try {
+      bar.percent(0.5f);
+      assertEquals(1, listener.updates.size());
+
+      bar.percent(0.6f);
+      bar.percent(0.7f);
+      assertEquals(1, listener.updates.size());
+      assertEquals(1, scheduled.size()); // one retry for every held change
+
+      bar.name(TextComponent.of("renamed"));
+      assertEquals(2, listener.updates.size());
+      assertEquals(AbstractBossBarListener.CHANGE_NAME, (int) listener.updates.get(1));
+    } finally {
+      AbstractBossBarListener.limitProgress(bar, 0, Duration.ZERO);
+    }
+  }
+
+  @Test
+  public void testProgressLimitKeyedByIdentity() {
+    final RecordingListener listener = new RecordingListener();
+    final BossBar limited = bar();
+    final BossBar other = bar();
+    listener.show(VIEWER, limited);
+    listener.show(VIEWER, other);
+    AbstractBossBarListener.limitProgress(limited, 0.5f, Duration.ZERO);
+    try {
+      other.percent(0.5f);
+      other.percent(0.55f);
+      assertEquals(2, listener.updates.size());
+    } finally {
+      AbstractBossBarListener.limitProgress(limited, 0, Duration.ZERO);
+    }
+  }
+
+  @Test
+  public void testReplaceOnUpdate() {
+    assertFalse(AbstractBossBarListener.replaceOnUpdate(AbstractBossBarListener.CHANGE_NAME));
+    assertFalse(AbstractBossBarListener.replaceOnUpdate(AbstractBossBarListener.CHANGE_NAME | AbstractBossBarListener.CHANGE_FLAGS));
+    assertTrue(AbstractBossBarListener.replaceOnUpdate(AbstractBossBarListener.CHANGE_NAME | AbstractBossBarListener.CHANGE_COLOR));
+    assertTrue(AbstractBossBarListener.replaceOnUpdate(AbstractBossBarListener.CHANGE_NAME | AbstractBossBarListener.CHANGE_OVERLAY | AbstractBossBarListener.CHANGE_FLAGS));
+    assertFalse(AbstractBossBarListener.replaceOnUpdate(AbstractBossBarListener.CHANGE_NAME | AbstractBossBarListener.CHANGE_COLOR | AbstractBossBarListener.CHANGE_PERCENT)); // keeps progress animating
+  }
+
+  private static BossBar bar() {
+    return BossBar.of(TextComponent.of("bar"), 0, BossBar.Color.PINK, BossBar.Overlay.PROGRESS);
+  }
+
+  static final class RecordingListener extends AbstractBossBarListener<String, Set<String>> {
+    final List<Integer> updates = new ArrayList<>();
+
+    @Override
+    public boolean isAvailable() {
+      return true;
+    }
+
+    @Override
+    protected void update(final BossBar adventure, final Set<String> bar, final int changes) {
+      this.updates.add(changes);
+    }
+
+    @Override
+    protected Set<String> newInstance(final BossBar adventure) {
+      return new HashSet<>();
+    }
+
+    @Override
+    protected void show(final String viewer, final Set<String> bar) {
+      bar.add(viewer);
+    }
+
+    @Override
+    protected boolean hide(final String viewer, final Set<String> bar) {
+      return bar.remove(viewer);
+    }
+
+    @Override
+    protected boolean isEmpty(final Set<String> bar) {
+      return bar.isEmpty();
+    }
+
+    @Override
+    protected int viewers(final Set<String> bar) {
+      return bar.size();
+    }
+
+    @Override
+    protected void hideFromAll(final Set<String> bar) {
+      bar.clear();
+    }
+  }
+}
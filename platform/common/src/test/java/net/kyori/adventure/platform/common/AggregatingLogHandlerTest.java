@@ -0,0 +1,106 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AggregatingLogHandlerTest {
+  private final List<String> logged = new ArrayList<>();
+  private final AggregatingLogHandler handler = new AggregatingLogHandler(new Knobs.LogHandler() {
+    @Override
+    public void info(final String message, final Object... params) {
+      AggregatingLogHandlerTest.this.logged.add(MessageFormat.format(message, params));
+    }
+
+    @Override
+    public void error(final Throwable exc, final String message, final Object... params) {
+      AggregatingLogHandlerTest.this.logged.add(MessageFormat.format(message, params));
+    }
+  }, 1, TimeUnit.HOURS);
+
+  @Test
+  public void testFirstErrorLoggedInFull() {
+    this.handler.error(new IllegalStateException(), "failed {0}", "sending");
+    assertEquals(1, this.logged.size());
+    assertEquals("failed sending", this.logged.get(0));
+  }
+
+  @Test
+  public void testRepeatedErrorsSummarized() {
+    for(int i = 0; i < 5; i++) {
+      this.handler.error(new IllegalStateException(), "failed {0}", "sending");
+    }
+    assertEquals(1, this.logged.size());
+
+    this.handler.flush();
+    assertEquals(2, this.logged.size());
+    assertEquals("Adventure suppressed 4 more errors (java.lang.IllegalStateException), first seen as: failed sending", this.logged.get(1));
+  }
+
+  @Test
+  public void testParametersAggregated() {
+    this.handler.error(new IllegalStateException(), "failed sending to {0}", "kashike");
+    this.handler.error(new IllegalStateException(), "failed sending to {0}", "zml");
+    assertEquals(1, this.logged.size());
+
+    this.handler.flush();
+    assertEquals("Adventure suppressed 1 more errors (java.lang.IllegalStateException), first seen as: failed sending to kashike", this.logged.get(1));
+  }
+
+  @Test
+  public void testPatternsKeptApart() {
+    this.handler.error(new IllegalStateException(), "failed sending {0}", "title");
+    this.handler.error(new IllegalStateException(), "failed showing {0}", "title");
+    this.handler.error(new IllegalArgumentException(), "failed sending {0}", "title");
+    assertEquals(3, this.logged.size());
+  }
+
+  @Test
+  public void testFlushStartsNewWindow() {
+    this.handler.error(new IllegalStateException(), "failed {0}", "sending");
+    this.handler.error(new IllegalStateException(), "failed {0}", "sending");
+    this.handler.flush();
+    assertEquals(2, this.logged.size());
+
+    this.handler.error(new IllegalStateException(), "failed {0}", "sending");
+    assertEquals(3, this.logged.size());
+    assertEquals("failed sending", this.logged.get(2));
+
+    this.handler.flush(); // nothing was suppressed in this window
+    assertEquals(3, this.logged.size());
+  }
+
+  @Test
+  public void testInfoPassedThrough() {
+    this.handler.info("chose {0}", "handler");
+    this.handler.info("chose {0}", "handler");
+    assertEquals(2, this.logged.size());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HandlerMetricsTest {
+  private static Map<String, Long> snapshot(final HandlerMetrics.Histogram histogram) {
+    final Map<String, Long> snapshot = new HashMap<>();
+    histogram.snapshot("time", snapshot);
+    return snapshot;
+  }
+
+  @Test
+  public void testEmptyHistogram() {
+    final Map<String, Long> snapshot = snapshot(new HandlerMetrics.Histogram());
+    assertEquals(0L, (long) snapshot.get("time.count"));
+    assertEquals(0L, (long) snapshot.get("time.total"));
+    assertEquals(0L, (long) snapshot.get("time.max"));
+    assertEquals(0L, (long) snapshot.get("time.p50"));
+    assertEquals(0L, (long) snapshot.get("time.p99"));
+  }
+
+  @Test
+  public void testPercentilesReportBucketUpperBound() {
+    final HandlerMetrics.Histogram histogram = new HandlerMetrics.Histogram();
+    for(int i = 0; i < 99; i++) {
+      histogram.record(5); // 4-7
+    }
+    histogram.record(1000); // 512-1023
+
+    final Map<String, Long> snapshot = snapshot(histogram);
+    assertEquals(100L, (long) snapshot.get("time.count"));
+    assertEquals(99L * 5 + 1000, (long) snapshot.get("time.total"));
+    assertEquals(1000L, (long) snapshot.get("time.max"));
+    assertEquals(7L, (long) snapshot.get("time.p50"));
+    assertEquals(7L, (long) snapshot.get("time.p99"));
+
+    histogram.record(1000);
+    assertEquals(1023L, (long) snapshot(histogram).get("time.p99"));
+  }
+
+  @Test
+  public void testBucketEdges() {
+    final HandlerMetrics.Histogram zero = new HandlerMetrics.Histogram();
+    zero.record(0);
+    assertEquals(0L, (long) snapshot(zero).get("time.p50"));
+
+    final HandlerMetrics.Histogram one = new HandlerMetrics.Histogram();
+    one.record(1);
+    assertEquals(1L, (long) snapshot(one).get("time.p50"));
+
+    final HandlerMetrics.Histogram power = new HandlerMetrics.Histogram();
+    power.record(1024);
+    assertEquals(2047L, (long) snapshot(power).get("time.p50"));
+
+    final HandlerMetrics.Histogram largest = new HandlerMetrics.Histogram();
+    largest.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, (long) snapshot(largest).get("time.p50"));
+  }
+
+  @Test
+  public void testNegativeValuesClamped() {
+    final HandlerMetrics.Histogram histogram = new HandlerMetrics.Histogram();
+    histogram.record(-10);
+    final Map<String, Long> snapshot = snapshot(histogram);
+    assertEquals(1L, (long) snapshot.get("time.count"));
+    assertEquals(0L, (long) snapshot.get("time.total"));
+    assertEquals(0L, (long) snapshot.get("time.p50"));
+  }
+}
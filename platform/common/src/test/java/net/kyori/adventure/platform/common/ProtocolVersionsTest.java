@@ -0,0 +1,59 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ProtocolVersionsTest {
+  private static final UUID PLAYER = new UUID(0, 1);
+
+  @Test
+  public void testUnknownWhenNotRecorded() {
+    assertEquals(ProtocolVersions.UNKNOWN, new ProtocolVersions().version(PLAYER));
+  }
+
+  @Test
+  public void testRecordAndRemove() {
+    final ProtocolVersions versions = new ProtocolVersions();
+    versions.record(PLAYER, 47);
+    assertEquals(47, versions.version(PLAYER));
+    versions.record(PLAYER, 578);
+    assertEquals(578, versions.version(PLAYER));
+    versions.remove(PLAYER);
+    assertEquals(ProtocolVersions.UNKNOWN, versions.version(PLAYER));
+  }
+
+  @Test
+  public void testClear() {
+    final ProtocolVersions versions = new ProtocolVersions();
+    versions.record(PLAYER, 47);
+    versions.record(new UUID(0, 2), 340);
+    versions.clear();
+    assertEquals(ProtocolVersions.UNKNOWN, versions.version(PLAYER));
+    assertEquals(ProtocolVersions.UNKNOWN, versions.version(new UUID(0, 2)));
+  }
+}
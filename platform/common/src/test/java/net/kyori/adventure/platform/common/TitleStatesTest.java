@@ -0,0 +1,65 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.common;
+
+import org.junit.jupiter.api.Test;
+
+import static net.kyori.adventure.platform.common.Handler.Titles.DURATION_PRESERVE;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TitleStatesTest {
+  @Test
+  public void testTimesSentOnce() {
+    final TitleStates<String> states = new TitleStates<>();
+    assertTrue(states.times("viewer", 10, 70, 20));
+    assertFalse(states.times("viewer", 10, 70, 20));
+    assertTrue(states.times("viewer", 10, 80, 20));
+  }
+
+  @Test
+  public void testViewersTrackedSeparately() {
+    final TitleStates<String> states = new TitleStates<>();
+    assertTrue(states.times("first", 10, 70, 20));
+    assertTrue(states.times("second", 10, 70, 20));
+  }
+
+  @Test
+  public void testPreservedTimesKeepKnownTimes() {
+    final TitleStates<String> states = new TitleStates<>();
+    assertFalse(states.times("viewer", DURATION_PRESERVE, DURATION_PRESERVE, DURATION_PRESERVE)); // the client keeps whatever it has
+    assertTrue(states.times("viewer", 10, 70, 20));
+    assertFalse(states.times("viewer", DURATION_PRESERVE, 70, DURATION_PRESERVE));
+    assertTrue(states.times("viewer", DURATION_PRESERVE, 80, DURATION_PRESERVE));
+    assertFalse(states.times("viewer", 10, 80, 20));
+  }
+
+  @Test
+  public void testInvalidateForgetsTimes() {
+    final TitleStates<String> states = new TitleStates<>();
+    assertTrue(states.times("viewer", 10, 70, 20));
+    states.invalidate("viewer");
+    assertTrue(states.times("viewer", 10, 70, 20));
+  }
+}
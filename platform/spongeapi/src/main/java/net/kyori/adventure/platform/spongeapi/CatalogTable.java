@@ -0,0 +1,68 @@
+/*
+ * This file is part of adventure-platform, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.platform.spongeapi;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import net.kyori.adventure.util.Index;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.spongepowered.api.CatalogType;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A table of the Sponge catalog type for each constant of an Adventure enum.
+ *
+ * <p>Entries are looked up in the Sponge registry on first use, and remembered after that.</p>
+ *
+ * @param <K> the Adventure type
+ * @param <S> the Sponge type
+ */
+final class CatalogTable<K extends Enum<K>, S extends CatalogType> {
+  private final Class<S> spongeType;
+  private final Index<String, K> names;
+  private final AtomicReferenceArray<S> values;
+
+  CatalogTable(final @NonNull Class<K> adventureType, final @NonNull Class<S> spongeType, final @NonNull Index<String, K> names) {
+    this.spongeType = spongeType;
+    this.names = names;
+    this.values = new AtomicReferenceArray<>(adventureType.getEnumConstants().length);
+  }
+
+  /**
+   * Get the Sponge catalog type for an Adventure value.
+   *
+   * @param value the Adventure value
+   * @return the Sponge value
+   * @throws IllegalArgumentException if no matching Sponge value is registered
+   */
+  @NonNull S sponge(final @NonNull K value) {
+    final int ordinal = requireNonNull(value, "value").ordinal();
+    S sponge = this.values.get(ordinal);
+    if(sponge == null) {
+      sponge = SpongeAudienceProvider.sponge(this.spongeType, value, this.names);
+      this.values.lazySet(ordinal, sponge);
+    }
+    return sponge;
+  }
+}
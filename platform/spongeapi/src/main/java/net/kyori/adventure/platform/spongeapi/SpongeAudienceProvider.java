@@ -23,11 +23,13 @@
  */
 package net.kyori.adventure.platform.spongeapi;
 
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.platform.common.AbstractAudienceProvider;
+import net.kyori.adventure.platform.common.AbstractBossBarListener;
 import net.kyori.adventure.platform.common.Handler;
 import net.kyori.adventure.platform.common.HandlerCollection;
 import net.kyori.adventure.platform.common.Knobs;
@@ -36,6 +38,7 @@ import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.util.Index;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.CatalogType;
 import org.spongepowered.api.Game;
 import org.spongepowered.api.GameState;
@@ -52,6 +55,7 @@ import org.spongepowered.api.event.game.state.GameStoppedServerEvent;
 import org.spongepowered.api.event.network.ClientConnectionEvent;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.api.text.channel.MessageReceiver;
 
 import static java.util.Objects.requireNonNull;
@@ -99,7 +103,7 @@ final class SpongeAudienceProvider extends AbstractAudienceProvider implements S
 
   private final EventManager eventManager;
   private final Events events;
-  private final PluginManager plugins;
+  private final SpongeViaProvider via;
 
   private HandlerCollection<MessageReceiver, Handler.Chat<MessageReceiver, ?>> chat;
   private HandlerCollection<MessageReceiver, Handler.ActionBar<MessageReceiver, ?>> actionBar;
@@ -107,17 +111,19 @@ final class SpongeAudienceProvider extends AbstractAudienceProvider implements S
   private HandlerCollection<Player, Handler.BossBars<Player>> bossBar;
   private HandlerCollection<Viewer, Handler.PlaySound<Viewer>> sound;
   private HandlerCollection<Viewer, Handler.Books<Viewer>> books;
+  private @Nullable Task bossBarTask;
+  private volatile @Nullable PluginContainer container;
 
   @Inject
   SpongeAudienceProvider(final @NonNull EventManager eventManager, final @NonNull PluginManager plugins, final @NonNull Game game) {
     this.eventManager = eventManager;
-    this.plugins = plugins;
+    this.via = new SpongeViaProvider(plugins);
     this.events = new Events(game);
     if(game.getState().compareTo(GameState.POST_INITIALIZATION) > 0) { // if we've already post-initialized
       this.setupHandlers();
       if(game.isServerAvailable()) {
         for(final Player player : game.getServer().getOnlinePlayers()) {
-          this.add(new SpongePlayerAudience(player, this.chat, this.actionBar, this.title, this.bossBar, this.sound, this.books));
+          this.addPlayer(player);
         }
       }
     }
@@ -125,30 +131,53 @@ final class SpongeAudienceProvider extends AbstractAudienceProvider implements S
 
   @Inject
   void init(final PluginContainer container) {
+    this.container = container;
     this.eventManager.registerListeners(container, this.events);
+
+    // Send boss bar changes once per interval, rather than as each one is made
+    final int bossBarInterval = Knobs.bossBarUpdateInterval();
+    if(bossBarInterval > 0) {
+      this.bossBarTask = Task.builder()
+        .execute(() -> {
+          if(this.bossBar != null) {
+            AbstractBossBarListener.flush(this.bossBar);
+          }
+        })
+        .delayTicks(bossBarInterval)
+        .intervalTicks(bossBarInterval)
+        .submit(container);
+    }
   }
 
   void setupHandlers() {
-    final SpongeViaProvider via = new SpongeViaProvider(this.plugins);
-
     this.chat = HandlerCollection.of(
-      via("Chat", via, Handler.Chat.class),
+      via("Chat", this.via, Handler.Chat.class),
       new SpongeHandlers.Chat());
     this.actionBar = HandlerCollection.of(
-      via("ActionBar", via, Handler.ActionBar.class),
+      via("ActionBar", this.via, Handler.ActionBar.class),
       new SpongeHandlers.ActionBar());
     this.title = HandlerCollection.of(
-      via("Titles", via, Handler.Titles.class),
+      via("Titles", this.via, Handler.Titles.class),
       new SpongeHandlers.Titles());
     this.bossBar = HandlerCollection.of(
-      via("BossBars_1_16", via, Handler.BossBars.class),
-      via("BossBars_1_9_1_15", via, Handler.BossBars.class),
+      via("BossBars_1_16", this.via, Handler.BossBars.class),
+      via("BossBars_1_9_1_15", this.via, Handler.BossBars.class),
       new SpongeBossBarListener());
     this.sound = HandlerCollection.of(new SpongeHandlers.PlaySound()); // don't include via since we don't target versions below 1.9
     this.books = HandlerCollection.of(new SpongeHandlers.Books());
+    if(Knobs.bossBarUpdateInterval() > 0) {
+      AbstractBossBarListener.coalesce(this.bossBar, true);
+    }
+    AbstractBossBarListener.scheduler(this.bossBar, (task, delay) -> {
+      final PluginContainer container = this.container;
+      if(container != null) {
+        Task.builder().execute(task).delay(delay, TimeUnit.NANOSECONDS).submit(container);
+      }
+    });
   }
 
   private void addPlayer(final @NonNull Player target) {
+    this.via.join(target);
     this.add(new SpongePlayerAudience(target, this.chat, this.actionBar, this.title, this.bossBar, this.sound, this.books));
   }
 
@@ -176,11 +205,17 @@ final class SpongeAudienceProvider extends AbstractAudienceProvider implements S
     @Listener(order = Order.LAST)
     public void quit(final ClientConnectionEvent.@NonNull Disconnect event) {
       SpongeAudienceProvider.this.remove(event.getTargetEntity().getUniqueId());
+      SpongeAudienceProvider.this.via.quit(event.getTargetEntity());
       if(SpongeAudienceProvider.this.bossBar != null) {
         for(final Handler.BossBars<Player> handler : SpongeAudienceProvider.this.bossBar) {
           handler.hideAll(event.getTargetEntity());
         }
       }
+      if(SpongeAudienceProvider.this.title != null) {
+        for(final Handler.Titles<Viewer> handler : SpongeAudienceProvider.this.title) {
+          handler.invalidate(event.getTargetEntity());
+        }
+      }
     }
 
     @Listener
@@ -220,6 +255,10 @@ final class SpongeAudienceProvider extends AbstractAudienceProvider implements S
   @Override
   public void close() {
     this.eventManager.unregisterListeners(this.events);
+    if(this.bossBarTask != null) {
+      this.bossBarTask.cancel();
+      this.bossBarTask = null;
+    }
     for(final Handler.BossBars<Player> handler : this.bossBar) {
       handler.hideAll();
     }
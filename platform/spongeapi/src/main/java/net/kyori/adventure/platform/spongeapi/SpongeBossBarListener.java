@@ -26,7 +26,6 @@ package net.kyori.adventure.platform.spongeapi;
 import java.util.Set;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.platform.common.AbstractBossBarListener;
-import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.spongeapi.SpongeApiComponentSerializer;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.spongepowered.api.boss.BossBarColor;
@@ -35,37 +34,32 @@ import org.spongepowered.api.boss.ServerBossBar;
 import org.spongepowered.api.entity.living.player.Player;
 
 class SpongeBossBarListener extends AbstractBossBarListener<Player, ServerBossBar> {
+  private static final CatalogTable<BossBar.Color, BossBarColor> COLORS = new CatalogTable<>(BossBar.Color.class, BossBarColor.class, BossBar.Color.NAMES);
+  private static final CatalogTable<BossBar.Overlay, BossBarOverlay> OVERLAYS = new CatalogTable<>(BossBar.Overlay.class, BossBarOverlay.class, BossBar.Overlay.NAMES);
 
   SpongeBossBarListener() {
   }
 
   @Override
-  public void bossBarNameChanged(final @NonNull BossBar bar, final @NonNull Component oldName, final @NonNull Component newName) {
-    handle(bar, newName, (val, sponge) -> sponge.setName(SpongeApiComponentSerializer.get().serialize(val)));
-  }
-
-  @Override
-  public void bossBarPercentChanged(final @NonNull BossBar bar, final float oldPercent, final float newPercent) {
-    handle(bar, newPercent, (val, sponge) -> sponge.setPercent(val));
-  }
-
-  @Override
-  public void bossBarColorChanged(final @NonNull BossBar bar, final BossBar.@NonNull Color oldColor, final BossBar.@NonNull Color newColor) {
-    handle(bar, newColor, (val, sponge) -> sponge.setColor(SpongeAudienceProvider.sponge(BossBarColor.class, val, BossBar.Color.NAMES)));
-  }
-
-  @Override
-  public void bossBarOverlayChanged(final @NonNull BossBar bar, final BossBar.@NonNull Overlay oldOverlay, final BossBar.@NonNull Overlay newOverlay) {
-    handle(bar, newOverlay, (val, sponge) -> sponge.setOverlay(SpongeAudienceProvider.sponge(BossBarOverlay.class, val, BossBar.Overlay.NAMES)));
-  }
-
-  @Override
-  public void bossBarFlagsChanged(final @NonNull BossBar bar, final @NonNull Set<BossBar.Flag> oldFlags, final @NonNull Set<BossBar.Flag> newFlags) {
-    handle(bar, newFlags, (flags, sponge) -> {
+  protected void update(final @NonNull BossBar adventure, final @NonNull ServerBossBar sponge, final int changes) {
+    if((changes & CHANGE_NAME) != 0) {
+      sponge.setName(SpongeApiComponentSerializer.get().serialize(adventure.name()));
+    }
+    if((changes & CHANGE_PERCENT) != 0) {
+      sponge.setPercent(adventure.percent());
+    }
+    if((changes & CHANGE_COLOR) != 0) {
+      sponge.setColor(COLORS.sponge(adventure.color()));
+    }
+    if((changes & CHANGE_OVERLAY) != 0) {
+      sponge.setOverlay(OVERLAYS.sponge(adventure.overlay()));
+    }
+    if((changes & CHANGE_FLAGS) != 0) {
+      final Set<BossBar.Flag> flags = adventure.flags();
       sponge.setCreateFog(flags.contains(BossBar.Flag.CREATE_WORLD_FOG));
       sponge.setDarkenSky(flags.contains(BossBar.Flag.DARKEN_SCREEN));
       sponge.setPlayEndBossMusic(flags.contains(BossBar.Flag.PLAY_BOSS_MUSIC));
-    });
+    }
   }
 
   @NonNull
@@ -74,8 +68,8 @@ class SpongeBossBarListener extends AbstractBossBarListener<Player, ServerBossBa
     return ServerBossBar.builder()
       .name(SpongeApiComponentSerializer.get().serialize(adventure.name()))
       .percent(adventure.percent())
-      .color(SpongeAudienceProvider.sponge(BossBarColor.class, adventure.color(), BossBar.Color.NAMES))
-      .overlay(SpongeAudienceProvider.sponge(BossBarOverlay.class, adventure.overlay(), BossBar.Overlay.NAMES))
+      .color(COLORS.sponge(adventure.color()))
+      .overlay(OVERLAYS.sponge(adventure.overlay()))
       .createFog(adventure.flags().contains(BossBar.Flag.CREATE_WORLD_FOG))
       .darkenSky(adventure.flags().contains(BossBar.Flag.DARKEN_SCREEN))
       .playEndBossMusic(adventure.flags().contains(BossBar.Flag.PLAY_BOSS_MUSIC))
@@ -99,6 +93,11 @@ class SpongeBossBarListener extends AbstractBossBarListener<Player, ServerBossBa
     return bar.getPlayers().isEmpty();
   }
 
+  @Override
+  protected int viewers(final @NonNull ServerBossBar bar) {
+    return bar.getPlayers().size();
+  }
+
   @Override
   protected void hideFromAll(final @NonNull ServerBossBar bar) {
     bar.removePlayers(bar.getPlayers());
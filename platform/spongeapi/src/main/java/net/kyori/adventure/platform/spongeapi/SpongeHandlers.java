@@ -24,6 +24,8 @@
 package net.kyori.adventure.platform.spongeapi;
 
 import com.flowpowered.math.vector.Vector3d;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.inventory.Book;
 import net.kyori.adventure.key.Key;
@@ -139,6 +141,9 @@ final class SpongeHandlers {
   }
 
   static class PlaySound implements Handler.PlaySound<Viewer> {
+    private static final CatalogTable<Sound.Source, SoundCategory> CATEGORIES = new CatalogTable<>(Sound.Source.class, SoundCategory.class, Sound.Source.NAMES);
+    private static final int MAXIMUM_SOUNDS = 4096; // sound types to remember, any more are looked up every time
+    private static final Map<Key, SoundType> SOUNDS = new ConcurrentHashMap<>();
 
     @Override
     public boolean isAvailable() {
@@ -182,11 +187,19 @@ final class SpongeHandlers {
     }
 
     private static SoundType sponge(final @Nullable Key sound) {
-      return sound == null ? null : SpongeAudienceProvider.sponge(SoundType.class, sound);
+      if(sound == null) return null;
+      final SoundType cached = SOUNDS.get(sound);
+      if(cached != null) return cached;
+      // unregistered sounds throw here, so only registered types are remembered
+      final SoundType type = SpongeAudienceProvider.sponge(SoundType.class, sound);
+      if(SOUNDS.size() < MAXIMUM_SOUNDS) {
+        SOUNDS.putIfAbsent(sound, type);
+      }
+      return type;
     }
 
     private static SoundCategory sponge(final Sound.@Nullable Source source) {
-      return source == null ? null : SpongeAudienceProvider.sponge(SoundCategory.class, source, Sound.Source.NAMES);
+      return source == null ? null : CATEGORIES.sponge(source);
     }
   }
 
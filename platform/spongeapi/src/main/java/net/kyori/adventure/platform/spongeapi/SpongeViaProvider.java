@@ -24,6 +24,7 @@
 package net.kyori.adventure.platform.spongeapi;
 
 import java.util.UUID;
+import net.kyori.adventure.platform.common.ProtocolVersions;
 import net.kyori.adventure.platform.viaversion.ViaAPIProvider;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -40,6 +41,7 @@ import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 class SpongeViaProvider implements ViaAPIProvider<Object> { // too many interfaces :(
 
   private final PluginManager plugins;
+  private final ProtocolVersions versions = new ProtocolVersions();
   private volatile ViaPlatform<?> platform = null;
 
   SpongeViaProvider(final PluginManager plugins) {
@@ -73,21 +75,33 @@ class SpongeViaProvider implements ViaAPIProvider<Object> { // too many interfac
   }
 
   @Override
-  public @NonNull GsonComponentSerializer serializer(final @NonNull Object viewer) {
-    if(this.isAvailable()) {
-      final UUID id = this.id(viewer);
-      if(id != null) {
-        return this.gsonSerializer(id);
-      }
-    }
-    return SpongeAudienceProvider.LEGACY_GSON_SERIALIZER;
+  public int protocolVersion(final @NonNull Object viewer) {
+    final UUID id = this.id(viewer);
+    return id == null ? ProtocolVersions.UNKNOWN : this.versions.version(id);
   }
-  
-  private @NonNull GsonComponentSerializer gsonSerializer(final UUID id) {
-    if(this.platform().getApi().getPlayerVersion(id) >= ProtocolVersion.v1_16.getId()) {
+
+  @Override
+  public @NonNull GsonComponentSerializer serializer(final @NonNull Object viewer) {
+    if(this.protocolVersion(viewer) >= ProtocolVersion.v1_16.getId()) {
       return SpongeAudienceProvider.MODERN_GSON_SERIALIZER;
     } else {
       return SpongeAudienceProvider.LEGACY_GSON_SERIALIZER;
     }
   }
+
+  /**
+   * Record the client version of a player, if ViaVersion is available.
+   *
+   * @param player the player
+   */
+  void join(final @NonNull Player player) {
+    final ViaPlatform<?> platform = this.platform();
+    if(platform != null) {
+      this.versions.record(player.getUniqueId(), platform.getApi().getPlayerVersion(player.getUniqueId()));
+    }
+  }
+
+  void quit(final @NonNull Player player) {
+    this.versions.remove(player.getUniqueId());
+  }
 }
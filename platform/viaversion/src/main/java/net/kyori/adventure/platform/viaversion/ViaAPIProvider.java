@@ -24,6 +24,7 @@
 package net.kyori.adventure.platform.viaversion;
 
 import java.util.UUID;
+import net.kyori.adventure.platform.common.ProtocolVersions;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -66,6 +67,20 @@ public interface ViaAPIProvider<V> {
    */
   @Nullable UUID id(final @NonNull V viewer);
 
+  /**
+   * Get the protocol version of a viewer's client.
+   *
+   * <p>The default implementation asks ViaVersion on every call. Implementations should
+   * prefer versions recorded in {@link ProtocolVersions} when players join.</p>
+   *
+   * @param viewer the viewer
+   * @return the protocol version, or {@link ProtocolVersions#UNKNOWN} if not a player or not known
+   */
+  default int protocolVersion(final @NonNull V viewer) {
+    final UUID id = this.id(viewer);
+    return id == null ? ProtocolVersions.UNKNOWN : this.platform().getApi().getPlayerVersion(id);
+  }
+
   /**
    * Get a versioned GSON serializer appropriate for the viewer's protocol version.
    *
@@ -77,10 +92,9 @@ public interface ViaAPIProvider<V> {
    * @return a serializer
    */
   default @NonNull GsonComponentSerializer serializer(final @NonNull V viewer) {
-    int protocolVersion = ProtocolRegistry.SERVER_PROTOCOL;
-    final UUID id = this.id(viewer);
-    if(id != null) {
-      protocolVersion = this.platform().getApi().getPlayerVersion(id);
+    int protocolVersion = this.protocolVersion(viewer);
+    if(protocolVersion == ProtocolVersions.UNKNOWN) {
+      protocolVersion = ProtocolRegistry.SERVER_PROTOCOL;
     }
 
     if(protocolVersion >= ProtocolVersion.v1_16.getId()) {
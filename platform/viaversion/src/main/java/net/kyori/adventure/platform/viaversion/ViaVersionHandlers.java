@@ -23,20 +23,17 @@
  */
 package net.kyori.adventure.platform.viaversion;
 
-import java.util.Collections;
-import java.util.IdentityHashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import net.kyori.adventure.audience.MessageType;
-import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.key.Key;
+import net.kyori.adventure.platform.common.AbstractBossBarListener;
 import net.kyori.adventure.platform.common.Handler;
 import net.kyori.adventure.platform.common.Knobs;
+import net.kyori.adventure.platform.common.TitleStates;
 import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.sound.SoundStop;
 import net.kyori.adventure.text.Component;
@@ -47,7 +44,6 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import us.myles.ViaVersion.api.PacketWrapper;
 import us.myles.ViaVersion.api.data.UserConnection;
-import us.myles.ViaVersion.api.platform.ViaPlatform;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
 import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.api.type.Type;
@@ -89,8 +85,17 @@ public final class ViaVersionHandlers {
 
     @Override
     public boolean isAvailable() {
+      return isAvailable(this.via);
+    }
+
+    @Override
+    public boolean isAvailable(final @NonNull V viewer) {
+      return isAvailable(this.via, viewer, this.version());
+    }
+
+    static boolean isAvailable(final @NonNull ViaAPIProvider<?> via) {
       if(!Knobs.enabled(ID)) return false;
-      if(!this.via.isAvailable()) return false;
+      if(!via.isAvailable()) return false;
       try {
         Class.forName("us.myles.ViaVersion.protocols.protocol1_16to1_15_2.Protocol1_16To1_15_2"); // make sure we're on a new version
         return true;
@@ -100,18 +105,10 @@ public final class ViaVersionHandlers {
       }
     }
 
-    @Override
-    public boolean isAvailable(final @NonNull V viewer) {
-      final ViaPlatform<?> platform = this.via.platform();
-      if(platform == null) return false;
-      final UUID viewerId = this.via.id(viewer);
-      if(viewerId == null) {
-        return false;
-      }
-
-      if(ProtocolRegistry.SERVER_PROTOCOL >= this.version().getId()) return false;
+    static <V> boolean isAvailable(final @NonNull ViaAPIProvider<? super V> via, final @NonNull V viewer, final @NonNull ProtocolVersion version) {
+      if(ProtocolRegistry.SERVER_PROTOCOL >= version.getId()) return false;
 
-      return platform.getApi().getPlayerVersion(viewerId) >= this.version().getId();
+      return via.protocolVersion(viewer) >= version.getId();
     }
 
     protected UserConnection connection(final V viewer) {
@@ -175,6 +172,8 @@ public final class ViaVersionHandlers {
     protected static final int ACTION_CLEAR = 4;
     protected static final int ACTION_RESET = 5;
 
+    private final TitleStates<V> states = new TitleStates<>();
+
     public Titles(final ViaAPIProvider<? super V> via) {
       super(via);
     }
@@ -189,19 +188,23 @@ public final class ViaVersionHandlers {
     public void send(final @NonNull V viewer, final net.kyori.adventure.title.@NonNull Title title) {
       final Title.Times times = title.times();
       if(times != null) {
-        final PacketWrapper wrapper = this.make(viewer, ACTION_TIMES);
-        wrapper.write(Type.INT, Titles.ticks(times.fadeIn()));
-        wrapper.write(Type.INT, Titles.ticks(times.stay()));
-        wrapper.write(Type.INT, Titles.ticks(times.fadeOut()));
-        this.send(wrapper);
+        final int fadeIn = Titles.ticks(times.fadeIn());
+        final int stay = Titles.ticks(times.stay());
+        final int fadeOut = Titles.ticks(times.fadeOut());
+        if(this.states.times(viewer, fadeIn, stay, fadeOut)) {
+          final PacketWrapper wrapper = this.make(viewer, ACTION_TIMES);
+          wrapper.write(Type.INT, fadeIn);
+          wrapper.write(Type.INT, stay);
+          wrapper.write(Type.INT, fadeOut);
+          this.send(wrapper);
+        }
       }
 
-      if(title.subtitle() != TextComponent.empty()) {
-        final String subtitleJson = GsonComponentSerializer.gson().serialize(title.subtitle());
-        final PacketWrapper wrapper = this.make(viewer, ACTION_SUBTITLE);
-        wrapper.write(Type.STRING, subtitleJson);
-        this.send(wrapper);
-      }
+      // always sent, even when empty, so a subtitle still on screen from another title is replaced
+      final String subtitleJson = GsonComponentSerializer.gson().serialize(title.subtitle());
+      final PacketWrapper subtitle = this.make(viewer, ACTION_SUBTITLE);
+      subtitle.write(Type.STRING, subtitleJson);
+      this.send(subtitle);
 
       if(title.title() != TextComponent.empty()) {
         final String titleJson = GsonComponentSerializer.gson().serialize(title.title());
@@ -214,13 +217,20 @@ public final class ViaVersionHandlers {
 
     @Override
     public void clear(final @NonNull V viewer) {
+      this.states.invalidate(viewer);
       this.send(this.make(viewer, ACTION_CLEAR)); // no extra data
     }
 
     @Override
     public void reset(final @NonNull V viewer) {
+      this.states.invalidate(viewer);
       this.send(this.make(viewer, ACTION_RESET)); // no extra data
     }
+
+    @Override
+    public void invalidate(final @NonNull V viewer) {
+      this.states.invalidate(viewer);
+    }
   }
 
   public static final class BossBars_1_9_1_15<V> extends BossBars<V> {
@@ -260,129 +270,153 @@ public final class ViaVersionHandlers {
     }
   }
 
-  protected static abstract class BossBars<V> extends ConnectionBased<V> implements Handler.BossBars<V>, net.kyori.adventure.bossbar.BossBar.Listener {
-    private final Map<net.kyori.adventure.bossbar.BossBar, Instance> bars = Collections.synchronizedMap(new IdentityHashMap<>());
+  protected static abstract class BossBars<V> extends AbstractBossBarListener<V, ViaVersionHandlers.BossBars.Instance> {
+    protected final ViaAPIProvider<? super V> via;
 
     BossBars(final ViaAPIProvider<? super V> via) {
-      super(via);
+      this.via = via;
     }
 
     protected abstract GsonComponentSerializer serializer();
 
-    @Override
-    public void show(final @NonNull V viewer, final net.kyori.adventure.bossbar.@NonNull BossBar bar) {
-      final Instance barInstance = this.bars.computeIfAbsent(bar, adventure -> {
-        adventure.addListener(this);
-        return new Instance();
-      });
-      if(barInstance.subscribedPlayers.add(this.via.id(viewer))) {
-        final PacketWrapper addPkt = barInstance.make(this.connection(viewer), ACTION_ADD);
-        addPkt.write(Type.STRING, this.serializer().serialize(bar.name()));
-        addPkt.write(Type.FLOAT, bar.percent());
-        addPkt.write(Type.VAR_INT, BossBars.color(bar.color()));
-        addPkt.write(Type.VAR_INT, BossBars.overlay(bar.overlay()));
-        addPkt.write(Type.BYTE, BossBars.bitmaskFlags(bar.flags()));
-        this.send(addPkt);
-      }
+    /**
+     * Get the protocol version this handler is targeted for.
+     *
+     * @return the version
+     * @see ConnectionBased#version()
+     */
+    protected ProtocolVersion version() {
+      return ProtocolVersion.v1_16;
     }
 
     @Override
-    public void hide(final @NonNull V viewer, final net.kyori.adventure.bossbar.@NonNull BossBar bar) {
-      this.bars.computeIfPresent(bar, (adventure, instance) -> {
-        if(instance.subscribedPlayers.remove(this.via.id(viewer))) {
-          this.send(instance.make(this.connection(viewer), ACTION_REMOVE));
-        }
-        if(instance.subscribedPlayers.isEmpty()) {
-          adventure.removeListener(this);
-          return null;
-        } else {
-          return instance;
-        }
-      });
+    public boolean isAvailable() {
+      return ConnectionBased.isAvailable(this.via);
     }
 
     @Override
-    public void hideAll(@NonNull final V viewer) {
-      final UUID id = this.via.id(viewer);
-      for(final Iterator<Map.Entry<BossBar, Instance>> it = this.bars.entrySet().iterator(); it.hasNext();) {
-        final Map.Entry<BossBar, Instance> entry = it.next();
-        if(entry.getValue().subscribedPlayers.remove(id)) {
-          this.send(entry.getValue().make(this.via.connection(viewer), ACTION_REMOVE));
-          if(entry.getValue().subscribedPlayers.isEmpty()) {
-            entry.getKey().removeListener(this);
-            it.remove();
-          }
-        }
+    public boolean isAvailable(final @NonNull V viewer) {
+      return ConnectionBased.isAvailable(this.via, viewer, this.version());
+    }
 
+    protected void send(final @NonNull PacketWrapper wrapper) {
+      try {
+        wrapper.send(Protocol1_16To1_15_2.class);
+      } catch(final Exception ex) {
+        Knobs.logError("sending ViaVersion packet", ex);
       }
+    }
 
+    @Override
+    protected @NonNull Instance newInstance(final net.kyori.adventure.bossbar.@NonNull BossBar adventure) {
+      return new Instance(adventure);
     }
 
     @Override
-    public void hideAll() {
-      for(final Map.Entry<BossBar, Instance> entry : this.bars.entrySet()) {
-        entry.getValue().sendToSubscribers(entry.getKey(), ACTION_REMOVE, (pkt, bar) -> {});
-        entry.getKey().removeListener(this);
+    protected void show(final @NonNull V viewer, final @NonNull Instance bar) {
+      final UUID id = this.via.id(viewer);
+      final UserConnection connection = this.via.connection(viewer);
+      if(id == null || connection == null) return;
+
+      // a different connection means the player has rejoined, and their new client has not seen this bar yet
+      if(bar.subscribers.put(id, connection) != connection) {
+        this.send(this.makeAdd(bar, connection));
       }
-      this.bars.clear();
+    }
+
+    private @NonNull PacketWrapper makeAdd(final @NonNull Instance bar, final @NonNull UserConnection connection) {
+      final net.kyori.adventure.bossbar.BossBar adventure = bar.adventure;
+      final PacketWrapper addPkt = bar.make(connection, ACTION_ADD);
+      addPkt.write(Type.STRING, bar.name(this.serializer()));
+      addPkt.write(Type.FLOAT, adventure.percent());
+      addPkt.write(Type.VAR_INT, BossBars.color(adventure.color()));
+      addPkt.write(Type.VAR_INT, BossBars.overlay(adventure.overlay()));
+      addPkt.write(Type.BYTE, BossBars.bitmaskFlags(adventure.flags()));
+      return addPkt;
     }
 
     @Override
-    public void bossBarNameChanged(final net.kyori.adventure.bossbar.@NonNull BossBar bar, final @NonNull Component oldName, final @NonNull Component newName) {
-      final Instance instance = this.bars.get(bar);
-      if(instance != null) {
-        instance.sendToSubscribers(bar, ACTION_NAME, (pkt, adv) -> {
-          pkt.write(Type.STRING, this.serializer().serialize(adv.name()));
-        });
+    protected boolean hide(final @NonNull V viewer, final @NonNull Instance bar) {
+      final UUID id = this.via.id(viewer);
+      final UserConnection connection = id == null ? null : bar.subscribers.remove(id);
+      if(connection != null) {
+        this.send(bar.make(connection, ACTION_REMOVE));
+        return true;
       }
+      return false;
     }
 
     @Override
-    public void bossBarPercentChanged(final net.kyori.adventure.bossbar.@NonNull BossBar bar, final float oldPercent, final float newPercent) {
-      final Instance instance = this.bars.get(bar);
-      if(instance != null) {
-        instance.sendToSubscribers(bar, ACTION_PERCENT, (pkt, adv) -> {
-          pkt.write(Type.FLOAT, adv.percent());
-        });
-      }
+    protected boolean isEmpty(final @NonNull Instance bar) {
+      return bar.subscribers.isEmpty();
     }
 
     @Override
-    public void bossBarColorChanged(final net.kyori.adventure.bossbar.@NonNull BossBar bar, final net.kyori.adventure.bossbar.BossBar.@NonNull Color oldColor, final net.kyori.adventure.bossbar.BossBar.@NonNull Color newColor) {
-      this.styleChanged(bar);
+    protected int viewers(final @NonNull Instance bar) {
+      return bar.subscribers.size();
     }
 
     @Override
-    public void bossBarOverlayChanged(final net.kyori.adventure.bossbar.@NonNull BossBar bar, final net.kyori.adventure.bossbar.BossBar.@NonNull Overlay oldOverlay, final net.kyori.adventure.bossbar.BossBar.@NonNull Overlay newOverlay) {
-      this.styleChanged(bar);
+    protected void hideFromAll(final @NonNull Instance bar) {
+      this.sendToSubscribers(bar, ACTION_REMOVE, pkt -> {});
+      bar.subscribers.clear();
     }
 
-    private void styleChanged(final net.kyori.adventure.bossbar.@NonNull BossBar bar) {
-      final Instance instance = this.bars.get(bar);
-      if(instance != null) {
-        instance.sendToSubscribers(bar, ACTION_STYLE, (pkt, adv) -> {
-          pkt.write(Type.VAR_INT, BossBars.color(adv.color()));
-          pkt.write(Type.VAR_INT, BossBars.overlay(adv.overlay()));
+    @Override
+    protected void update(final net.kyori.adventure.bossbar.@NonNull BossBar adventure, final @NonNull Instance bar, final int changes) {
+      if(replaceOnUpdate(changes)) {
+        if((changes & CHANGE_NAME) != 0) {
+          bar.name(this.serializer(), adventure.name());
+        }
+        // one packet replacing the whole bar, rather than one for each property
+        for(final UserConnection connection : bar.subscribers.values()) {
+          this.send(this.makeAdd(bar, connection));
+        }
+        return;
+      }
+      // each value is computed once, then written for every subscriber
+      if((changes & CHANGE_NAME) != 0) {
+        final String name = bar.name(this.serializer(), adventure.name());
+        this.sendToSubscribers(bar, ACTION_NAME, pkt -> pkt.write(Type.STRING, name));
+      }
+      if((changes & CHANGE_PERCENT) != 0) {
+        final float percent = adventure.percent();
+        this.sendToSubscribers(bar, ACTION_PERCENT, pkt -> pkt.write(Type.FLOAT, percent));
+      }
+      if((changes & (CHANGE_COLOR | CHANGE_OVERLAY)) != 0) {
+        final int color = BossBars.color(adventure.color());
+        final int overlay = BossBars.overlay(adventure.overlay());
+        this.sendToSubscribers(bar, ACTION_STYLE, pkt -> {
+          pkt.write(Type.VAR_INT, color);
+          pkt.write(Type.VAR_INT, overlay);
         });
       }
+      if((changes & CHANGE_FLAGS) != 0) {
+        final byte flags = BossBars.bitmaskFlags(adventure.flags());
+        this.sendToSubscribers(bar, ACTION_FLAGS, pkt -> pkt.write(Type.BYTE, flags));
+      }
     }
 
-    @Override
-    public void bossBarFlagsChanged(final net.kyori.adventure.bossbar.@NonNull BossBar bar, final @NonNull Set<net.kyori.adventure.bossbar.BossBar.Flag> oldFlags, final @NonNull Set<net.kyori.adventure.bossbar.BossBar.Flag> newFlags) {
-      final Instance instance = this.bars.get(bar);
-      if(instance != null) {
-        instance.sendToSubscribers(bar, ACTION_FLAGS, (pkt, adv) -> {
-          pkt.write(Type.BYTE, BossBars.bitmaskFlags(adv.flags()));
-        });
+    private void sendToSubscribers(final @NonNull Instance bar, final int action, final @NonNull Consumer<PacketWrapper> populator) {
+      for(final UserConnection connection : bar.subscribers.values()) {
+        final PacketWrapper wrapper = bar.make(connection, action);
+        populator.accept(wrapper);
+        this.send(wrapper);
       }
     }
 
     /**
      * A single boss bar instance.
      */
-    class Instance {
+    static final class Instance {
       final UUID barId = UUID.randomUUID();
-      final Set<UUID> subscribedPlayers = ConcurrentHashMap.newKeySet();
+      final net.kyori.adventure.bossbar.BossBar adventure;
+      final Map<UUID, UserConnection> subscribers = new ConcurrentHashMap<>();
+      private volatile @Nullable String name;
+
+      Instance(final net.kyori.adventure.bossbar.@NonNull BossBar adventure) {
+        this.adventure = adventure;
+      }
 
       PacketWrapper make(final UserConnection user, final int action) {
         final PacketWrapper wrapper = new PacketWrapper(ClientboundPackets1_16.BOSSBAR.ordinal(), null, user);
@@ -391,15 +425,26 @@ public final class ViaVersionHandlers {
         return wrapper;
       }
 
-      void sendToSubscribers(final net.kyori.adventure.bossbar.BossBar adventure, final int action, final BiConsumer<PacketWrapper, net.kyori.adventure.bossbar.BossBar> populator) {
-        for(final UUID id : this.subscribedPlayers) {
-          final UserConnection conn = ViaVersionHandlers.BossBars.this.via.platform().getConnectionManager().getConnectedClient(id);
-          if(conn != null) {
-            final PacketWrapper wrapper = this.make(conn, action);
-            populator.accept(wrapper, adventure);
-            ViaVersionHandlers.BossBars.this.send(wrapper);
-          }
-        }
+      /**
+       * Get the serialized name of this bar, serializing it only if it has not been already.
+       *
+       * @param serializer the serializer to use
+       * @return the serialized name
+       */
+      String name(final @NonNull GsonComponentSerializer serializer) {
+        final String name = this.name;
+        return name != null ? name : this.name(serializer, this.adventure.name());
+      }
+
+      /**
+       * Serialize a new name for this bar.
+       *
+       * @param serializer the serializer to use
+       * @param name the new name
+       * @return the serialized name
+       */
+      String name(final @NonNull GsonComponentSerializer serializer, final @NonNull Component name) {
+        return this.name = serializer.serialize(name);
       }
     }
   }